@@ -0,0 +1,110 @@
+#!/usr/bin/env bash
+#
+# Allocation benchmark: GET /scenes/{id} (JSON) with the buffered and the streaming read path
+#
+#   ./gradlew bootJar
+#   ./scripts/allocation-benchmark.sh [objects] [requests]
+#
+# Creates one large scene (objects x ~200 bytes of assets), then starts the backend once per
+# path (scene.streaming-read.enabled=false / true) and measures the heap allocated while serving
+# the requests. Allocation is read from the GC log: the sum of heap growth between collections,
+# bracketed by two System.gc() calls. Needs the PostgreSQL database from application.yml.
+#
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+OUT_DIR="$BACKEND_DIR/build/allocation-benchmark"
+OBJECTS="${1:-100000}"
+REQUESTS="${2:-50}"
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:$PORT/api"
+USERNAME="alloc_bench"
+
+JAR="$(ls "$BACKEND_DIR"/build/libs/*.jar 2>/dev/null | grep -v -- '-plain.jar' | head -n 1 || true)"
+if [ -z "$JAR" ]; then
+    echo "Missing application jar - run ./gradlew bootJar first" >&2
+    exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+APP_PID=""
+trap '[ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true' EXIT
+
+start_backend() {
+    local streaming="$1" gc_log="$2"
+    java -Xms1g -Xmx1g -Xlog:gc:file="$gc_log" -jar "$JAR" \
+         --server.port="$PORT" \
+         --scene.streaming-read.enabled="$streaming" \
+         --spring.jpa.show-sql=false \
+         --logging.level.com.capstone.backend=INFO \
+         --logging.level.org.springframework.security=INFO \
+         > "$OUT_DIR/backend.log" 2>&1 &
+    APP_PID=$!
+    until curl -s -o /dev/null "$BASE_URL/scenes/search/mesh?meshName=Chair&limit=1"; do
+        sleep 0.2
+    done
+}
+
+stop_backend() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=""
+}
+
+create_scene() {
+    local request="$OUT_DIR/scene-request.json"
+    {
+        printf '{"name":"Allocation benchmark","description":"%s objects","username":"%s","assets":"[' "$OBJECTS" "$USERNAME"
+        for ((i = 0; i < OBJECTS; i++)); do
+            [ "$i" -gt 0 ] && printf ','
+            printf '{\\"id\\":\\"obj%d\\",\\"type\\":\\"object\\",\\"meshName\\":\\"Chair\\",\\"position\\":[%d.5,0,%d.25],\\"rotation\\":[0,90,0],\\"scale\\":[1,1,1]}' "$i" "$i" "$i"
+        done
+        printf ']"}'
+    } > "$request"
+
+    curl -s -o /dev/null -X POST "$BASE_URL/auth/signup" -H 'Content-Type: application/json' \
+         -d "{\"username\":\"$USERNAME\",\"password\":\"password\",\"email\":\"$USERNAME@example.com\",\"nickname\":\"bench\"}"
+    curl -s -X POST "$BASE_URL/scenes" -H 'Content-Type: application/json' --data-binary @"$request" \
+        | grep -o '"id":[0-9]*' | head -n 1 | cut -d: -f2
+}
+
+get_scene() {
+    curl -s -o /dev/null -H 'Accept: application/json' -H 'Accept-Encoding: identity' "$BASE_URL/scenes/$1"
+}
+
+# MB allocated between the last two System.gc() collections:
+# every collection adds (heap before) - (heap after the previous collection)
+allocated_mb() {
+    grep -E '[0-9]+M->[0-9]+M' "$1" | awk '
+        { match($0, /[0-9]+M->[0-9]+M/); split(substr($0, RSTART, RLENGTH), h, /M->|M/) }
+        /System.gc/ { if (inside) { total += h[1] - after; inside = 0; result = total } else { inside = 1; total = 0 }; after = h[2]; next }
+        inside { total += h[1] - after; after = h[2] }
+        END { print result + 0 }'
+}
+
+measure() {
+    local label="$1" streaming="$2" scene_id="$3"
+    local gc_log="$OUT_DIR/gc-$label.log"
+
+    start_backend "$streaming" "$gc_log"
+    for _ in 1 2 3 4 5; do get_scene "$scene_id"; done   # warm-up
+
+    jcmd "$APP_PID" GC.run > /dev/null
+    for ((i = 0; i < REQUESTS; i++)); do get_scene "$scene_id"; done
+    jcmd "$APP_PID" GC.run > /dev/null
+    sleep 1
+    stop_backend
+
+    local total
+    total="$(allocated_mb "$gc_log")"
+    printf '%-10s %8s MB total  %8s MB/request\n' "$label" "$total" "$(awk -v t="$total" -v n="$REQUESTS" 'BEGIN { printf "%.1f", t / n }')"
+}
+
+start_backend true "$OUT_DIR/gc-setup.log"
+SCENE_ID="$(create_scene)"
+SIZE="$(curl -s -H 'Accept: application/json' "$BASE_URL/scenes/$SCENE_ID" | wc -c)"
+stop_backend
+
+echo "Scene $SCENE_ID: $((SIZE / 1024)) KB JSON response, $REQUESTS requests"
+measure buffered false "$SCENE_ID"
+measure streaming true "$SCENE_ID"
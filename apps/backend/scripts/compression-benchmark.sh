@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+#
+# Compression benchmark: bytes on the wire and server CPU per scene request, per format and encoding
+#
+#   ./gradlew bootJar
+#   ./scripts/compression-benchmark.sh [objects] [requests]
+#
+# Creates one scene (objects x ~230 bytes of assets), then for every Accept type (JSON, Smile, CBOR,
+# MessagePack) fetches it with Accept-Encoding identity and gzip, and uploads it as a plain and a
+# gzip-compressed PUT. Bytes are what curl sent / received; CPU is the backend's user + system time
+# (/proc/<pid>/stat) over the requests, so it includes serialization. Needs the PostgreSQL database
+# from application.yml and Linux /proc.
+#
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+OUT_DIR="$BACKEND_DIR/build/compression-benchmark"
+OBJECTS="${1:-10000}"
+REQUESTS="${2:-50}"
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:$PORT/api"
+USERNAME="compress_bench"
+
+JAR="$(ls "$BACKEND_DIR"/build/libs/*.jar 2>/dev/null | grep -v -- '-plain.jar' | head -n 1 || true)"
+if [ -z "$JAR" ]; then
+    echo "Missing application jar - run ./gradlew bootJar first" >&2
+    exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+APP_PID=""
+trap '[ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true' EXIT
+
+java -Xms1g -Xmx1g -jar "$JAR" \
+     --server.port="$PORT" \
+     --spring.jpa.show-sql=false \
+     --logging.level.com.capstone.backend=INFO \
+     --logging.level.org.springframework.security=INFO \
+     > "$OUT_DIR/backend.log" 2>&1 &
+APP_PID=$!
+until curl -s -o /dev/null "$BASE_URL/scenes/search/mesh?meshName=Chair&limit=1"; do
+    sleep 0.2
+done
+
+REQUEST="$OUT_DIR/scene-request.json"
+{
+    printf '{"name":"Compression benchmark","description":"%s objects","username":"%s","assets":"[' "$OBJECTS" "$USERNAME"
+    for ((i = 0; i < OBJECTS; i++)); do
+        [ "$i" -gt 0 ] && printf ','
+        printf '{\\"id\\":\\"obj-%08d\\",\\"type\\":\\"object\\",\\"name\\":\\"Chair %d\\",\\"meshName\\":\\"Chair\\",\\"transform\\":{\\"position\\":[%d.%04d,0,%d.%04d],\\"rotation\\":[0,%d,0],\\"scale\\":[1,1,1]}}' \
+            "$i" "$i" $((RANDOM % 20)) "$RANDOM" $((RANDOM % 20)) "$RANDOM" $((RANDOM % 360))
+    done
+    printf ']"}'
+} > "$REQUEST"
+gzip -c "$REQUEST" > "$REQUEST.gz"
+
+curl -s -o /dev/null -X POST "$BASE_URL/auth/signup" -H 'Content-Type: application/json' \
+     -d "{\"username\":\"$USERNAME\",\"password\":\"password\",\"email\":\"$USERNAME@example.com\",\"nickname\":\"bench\"}"
+SCENE_ID="$(curl -s -X POST "$BASE_URL/scenes" -H 'Content-Type: application/json' --data-binary @"$REQUEST" \
+    | grep -o '"id":[0-9]*' | head -n 1 | cut -d: -f2)"
+
+# utime + stime of the backend, in clock ticks
+cpu_ticks() {
+    awk '{ print $14 + $15 }' "/proc/$APP_PID/stat"
+}
+
+# label, then the curl arguments of one request; prints bytes sent / received and CPU ms per request
+measure() {
+    local label="$1"
+    shift
+    for _ in 1 2 3 4 5; do curl -s -o /dev/null "$@"; done   # warm-up
+
+    local before after sizes
+    before="$(cpu_ticks)"
+    for ((i = 0; i < REQUESTS; i++)); do
+        sizes="$(curl -s -o /dev/null -w '%{size_upload} %{size_download}' "$@")"
+    done
+    after="$(cpu_ticks)"
+
+    awk -v label="$label" -v sizes="$sizes" -v ticks=$((after - before)) -v hz="$(getconf CLK_TCK)" -v n="$REQUESTS" 'BEGIN {
+        split(sizes, s, " ")
+        printf "%-24s %10d B sent %10d B received %8.2f ms CPU/request\n", label, s[1], s[2], ticks * 1000 / hz / n
+    }'
+}
+
+echo "Scene $SCENE_ID: $OBJECTS objects, $REQUESTS requests per row"
+for accept in application/json application/x-jackson-smile application/cbor application/x-msgpack; do
+    for encoding in identity gzip; do
+        measure "GET ${accept#application/} $encoding" \
+            -H "Accept: $accept" -H "Accept-Encoding: $encoding" "$BASE_URL/scenes/$SCENE_ID"
+    done
+done
+measure "PUT json identity" -X PUT -H 'Content-Type: application/json' \
+    --data-binary @"$REQUEST" "$BASE_URL/scenes/$SCENE_ID"
+measure "PUT json gzip" -X PUT -H 'Content-Type: application/json' -H 'Content-Encoding: gzip' \
+    --data-binary @"$REQUEST.gz" "$BASE_URL/scenes/$SCENE_ID"
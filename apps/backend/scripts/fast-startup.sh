@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+#
+# Startup-optimized build and run (Spring AOT + AppCDS + fast-startup profile)
+#
+#   ./scripts/fast-startup.sh build   # AOT-processed jar, exploded into build/fast-startup
+#   ./scripts/fast-startup.sh train   # training run -> build/fast-startup/application.jsa (needs the database)
+#   ./scripts/fast-startup.sh run     # start with AOT + CDS archive
+#
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+OUT_DIR="$BACKEND_DIR/build/fast-startup"
+ARCHIVE="$OUT_DIR/application.jsa"
+MAIN_CLASS="com.capstone.backend.BackendApplication"
+
+# CDS only archives classes loaded from jars, and the classpath must be identical
+# between the training run and later runs, so it is built in a fixed order.
+classpath() {
+    local cp="$OUT_DIR/application.jar"
+    for jar in $(ls "$OUT_DIR"/lib/*.jar | sort); do
+        cp="$cp:$jar"
+    done
+    echo "$cp"
+}
+
+build() {
+    cd "$BACKEND_DIR"
+    ./gradlew -q -PfastStartup clean bootJar
+
+    rm -rf "$OUT_DIR" && mkdir -p "$OUT_DIR/unpacked" "$OUT_DIR/lib"
+    local jar
+    jar="$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+
+    (cd "$OUT_DIR/unpacked" && jar -xf "$jar")
+    cp "$OUT_DIR"/unpacked/BOOT-INF/lib/*.jar "$OUT_DIR/lib/"
+    jar -cf "$OUT_DIR/application.jar" -C "$OUT_DIR/unpacked/BOOT-INF/classes" .
+    rm -rf "$OUT_DIR/unpacked"
+
+    echo "Exploded application written to $OUT_DIR"
+}
+
+train() {
+    # Refresh the context once, then exit and dump every loaded class into the archive
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" \
+         -Dspring.aot.enabled=true \
+         -Dspring.context.exit=onRefresh \
+         -Dspring.profiles.active=fast-startup \
+         -cp "$(classpath)" "$MAIN_CLASS" "$@"
+
+    echo "CDS archive written to $ARCHIVE"
+}
+
+run() {
+    java -XX:SharedArchiveFile="$ARCHIVE" \
+         -Dspring.aot.enabled=true \
+         -Dspring.profiles.active=fast-startup \
+         -cp "$(classpath)" "$MAIN_CLASS" "$@"
+}
+
+case "${1:-}" in
+    build) shift; build "$@" ;;
+    train) shift; train "$@" ;;
+    run)   shift; run "$@" ;;
+    *)     echo "Usage: $0 {build|train|run}" >&2; exit 1 ;;
+esac
@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+#
+# Runs the backend against three local scene shards (profile sharded-local)
+#
+#   ./scripts/sharded-local.sh          # create the shard databases if missing, then start the backend
+#
+# Uses the local PostgreSQL from application.yml (PGHOST / PGUSER / PGPASSWORD override the defaults).
+# Schemas are created by Flyway on startup, on every shard.
+#
+# Try it:
+#   curl localhost:8080/api/admin/shards
+#   curl -X POST 'localhost:8080/api/admin/shards/moves?username=testuser&targetShard=2'
+#
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+
+export PGHOST="${PGHOST:-localhost}"
+export PGUSER="${PGUSER:-postgres}"
+export PGPASSWORD="${PGPASSWORD:-postgres}"
+
+for db in capstone_db capstone_shard1 capstone_shard2; do
+    if ! psql -d postgres -tAc "SELECT 1 FROM pg_database WHERE datname = '$db'" | grep -q 1; then
+        echo "Creating database $db"
+        createdb "$db"
+    fi
+done
+
+cd "$BACKEND_DIR"
+exec ./gradlew bootRun --args='--spring.profiles.active=sharded-local'
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time-to-first-request for the default and fast-startup configurations
+#
+#   ./scripts/fast-startup.sh build && ./scripts/fast-startup.sh train
+#   ./scripts/startup-benchmark.sh [runs]
+#
+# Requires the PostgreSQL database from application.yml. The first request is a real
+# database-backed query, so the measurement includes connection pool and JPA warm-up.
+#
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+OUT_DIR="$BACKEND_DIR/build/fast-startup"
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+URL="http://localhost:$PORT/api/scenes/search/mesh?meshName=Chair&limit=1"
+MAIN_CLASS="com.capstone.backend.BackendApplication"
+
+if [ ! -f "$OUT_DIR/application.jsa" ]; then
+    echo "Missing $OUT_DIR/application.jsa - run scripts/fast-startup.sh build and train first" >&2
+    exit 1
+fi
+
+CLASSPATH="$OUT_DIR/application.jar"
+for jar in $(ls "$OUT_DIR"/lib/*.jar | sort); do
+    CLASSPATH="$CLASSPATH:$jar"
+done
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Launches the given command, returns milliseconds until the first successful request
+measure() {
+    local start pid elapsed
+    start="$(now_ms)"
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    kill "$pid" && wait "$pid" 2> /dev/null || true
+    echo "$elapsed"
+}
+
+benchmark() {
+    local label="$1"; shift
+    local total=0 result
+    for run in $(seq 1 "$RUNS"); do
+        result="$(measure "$@")"
+        total=$(( total + result ))
+        printf '  %-14s run %d: %6d ms\n' "$label" "$run" "$result"
+    done
+    printf '%-16s average: %6d ms\n\n' "$label" $(( total / RUNS ))
+}
+
+echo "Time to first request ($RUNS runs each)"
+echo
+
+benchmark "default" \
+    java -cp "$CLASSPATH" "$MAIN_CLASS"
+
+benchmark "fast-startup" \
+    java -XX:SharedArchiveFile="$OUT_DIR/application.jsa" \
+         -Dspring.aot.enabled=true \
+         -Dspring.profiles.active=fast-startup \
+         -cp "$CLASSPATH" "$MAIN_CLASS"
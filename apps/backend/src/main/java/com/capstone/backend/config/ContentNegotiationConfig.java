@@ -0,0 +1,135 @@
+package com.capstone.backend.config;
+
+import com.capstone.backend.dto.SceneRequest;
+import com.capstone.backend.dto.SceneResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Binary content negotiation
+ * Clients may send/accept Smile, CBOR or MessagePack instead of JSON via Content-Type / Accept.
+ * JSON stays the default: the binary converters are appended after the JSON converter.
+ * In JSON, scene assets stay a JSON string; the binary formats carry them as a native array instead,
+ * so their numbers and repeated keys are encoded by the format rather than wrapped as text.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType APPLICATION_MSGPACK = new MediaType("application", "x-msgpack");
+
+    // Boot's builder is prototype scoped and carries the spring.jackson.* settings
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replace the Spring MVC defaults, which are not configured from spring.jackson.*
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(new CBORFactory())));
+        converters.add(new MessagePackHttpMessageConverter(binaryObjectMapper(new MessagePackFactory())));
+    }
+
+    // Compressed request bodies are only accepted where scenes are written (create, update, autosave)
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            @Value("${request-decompression.max-inflated-bytes:67108864}") long maxInflatedBytes) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration =
+                new FilterRegistrationBean<>(new RequestDecompressionFilter(maxInflatedBytes));
+        registration.addUrlPatterns("/scenes", "/scenes/*");
+        return registration;
+    }
+
+    private ObjectMapper binaryObjectMapper(JsonFactory factory) {
+        return objectMapperBuilder.getObject()
+                .factory(factory)
+                .mixIn(SceneRequest.class, NativeAssetsMixIn.class)
+                .mixIn(SceneResponse.class, NativeAssetsMixIn.class)
+                .build();
+    }
+
+    static class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+        MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper, APPLICATION_MSGPACK);
+        }
+    }
+
+    abstract static class NativeAssetsMixIn {
+        @JsonSerialize(using = NativeAssetsSerializer.class)
+        @JsonDeserialize(using = NativeAssetsDeserializer.class)
+        private String assets;
+    }
+
+    // Copies the JSON text token by token into the binary generator, without building a tree.
+    // Stored assets are jsonb, so they are always well-formed
+    static class NativeAssetsSerializer extends StdSerializer<String> {
+
+        private static final JsonFactory JSON = new JsonFactory();
+
+        NativeAssetsSerializer() {
+            super(String.class);
+        }
+
+        @Override
+        public void serialize(String assets, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            try (JsonParser parser = JSON.createParser(assets)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    // Native array back to the JSON text the rest of the application works with; a JSON string is still accepted
+    static class NativeAssetsDeserializer extends StdDeserializer<String> {
+
+        private static final JsonFactory JSON = new JsonFactory();
+
+        NativeAssetsDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+            StringWriter json = new StringWriter();
+            try (JsonGenerator generator = JSON.createGenerator(json)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return json.toString();
+        }
+    }
+}
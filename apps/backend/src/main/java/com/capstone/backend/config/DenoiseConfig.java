@@ -0,0 +1,33 @@
+package com.capstone.backend.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Upload limits for POST /denoise
+ * Multipart limits belong to the servlet, so /denoise gets a DispatcherServlet of its own - same application context,
+ * same controllers - whose limits fit five rgba32float frames. Every other endpoint keeps spring.servlet.multipart.*
+ * (Spring Boot's defaults) on the main DispatcherServlet. The exact mapping takes precedence over the main "/" mapping.
+ */
+@Configuration
+public class DenoiseConfig {
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> denoiseDispatcherServlet(
+            WebApplicationContext webApplicationContext,
+            @Value("${denoise.max-file-size:64MB}") DataSize maxFileSize,
+            @Value("${denoise.max-request-size:320MB}") DataSize maxRequestSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(webApplicationContext), "/denoise");
+        registration.setName("denoiseDispatcherServlet");
+        registration.setLoadOnStartup(1);
+        registration.setMultipartConfig(new MultipartConfigElement("", maxFileSize.toBytes(), maxRequestSize.toBytes(), 0));
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package com.capstone.backend.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Fast-startup profile: API documentation (springdoc + SwaggerConfig) is not needed to serve
+ * scene traffic, so its beans are created on first use instead of during context refresh.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-startup")
+public class LazyApiDocsConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyApiDocsBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                if (isApiDocsBean(beanFactory, definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isApiDocsBean(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+
+        // @Bean methods have no class name of their own; use the declaring configuration class
+        if (className == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+
+        return className != null
+                && (className.startsWith(SPRINGDOC_PACKAGE) || className.startsWith(SwaggerConfig.class.getName()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.capstone.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Accepts compressed request bodies (Content-Encoding: gzip / deflate) on scene create and update.
+ * Not a component: ContentNegotiationConfig registers it for the /scenes paths only, and it only handles POST / PUT.
+ * The inflated size is capped so a small compressed body cannot expand without bound.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private final long maxInflatedBytes;
+
+    public RequestDecompressionFilter(long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                || !(HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim().toLowerCase(Locale.ROOT);
+
+        Decoder decoder;
+        switch (encoding) {
+            case "identity" -> {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            case "gzip", "x-gzip" -> decoder = compressed -> new GZIPInputStream(compressed, 8192);
+            case "deflate" -> decoder = InflaterInputStream::new;
+            default -> {
+                response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Unsupported Content-Encoding: " + encoding);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new DecompressedRequest(request, decoder, maxInflatedBytes), response);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        InputStream decode(InputStream compressed) throws IOException;
+    }
+
+    private static class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private final Decoder decoder;
+        private final long maxInflatedBytes;
+        private ServletInputStream inputStream;
+
+        DecompressedRequest(HttpServletRequest request, Decoder decoder, long maxInflatedBytes) {
+            super(request);
+            this.decoder = decoder;
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new DecompressedInputStream(super.getInputStream(), decoder, maxInflatedBytes);
+            }
+            return inputStream;
+        }
+
+        // The original length describes the compressed body; the inflated length is unknown
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) return null;
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) return null;
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) return Collections.emptyEnumeration();
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) return Collections.emptyEnumeration();
+            return super.getHeaders(name);
+        }
+    }
+
+    /**
+     * Inflated view of the request body, capped at the configured size.
+     * Blocking reads inflate straight from the container stream (the decoder is opened on the first read).
+     * Non-blocking reads (setReadListener) can't inflate partial input without blocking, so the compressed body
+     * is collected from the container's listener callbacks first - bounded by the same cap - and the application's
+     * listener is then driven over the inflated body, which is always ready.
+     */
+    private static class DecompressedInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+        private final Decoder decoder;
+        private final long limit;
+        private InputStream inflated;
+        private long count;
+        private volatile boolean finished;
+        private volatile boolean ready = true;
+
+        DecompressedInputStream(ServletInputStream compressed, Decoder decoder, long limit) {
+            this.compressed = compressed;
+            this.decoder = decoder;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = inflated().read();
+            if (value < 0) {
+                finished = true;
+            } else {
+                ensureWithinLimit(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = inflated().read(buffer, offset, length);
+            if (read < 0) {
+                finished = true;
+            } else {
+                ensureWithinLimit(read);
+            }
+            return read;
+        }
+
+        private InputStream inflated() throws IOException {
+            if (!ready) {
+                throw new IllegalStateException("Compressed request body is still being received");
+            }
+            if (inflated == null) {
+                inflated = decoder.decode(compressed);
+            }
+            return inflated;
+        }
+
+        private void ensureWithinLimit(int read) throws IOException {
+            count += read;
+            if (count > limit) {
+                throw new IOException("Decompressed request body exceeds " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            ready = false;
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+            compressed.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8192];
+                    while (compressed.isReady()) {
+                        int read = compressed.read(buffer);
+                        if (read < 0) return;
+                        body.write(buffer, 0, read);
+                        if (body.size() > limit) {
+                            throw new IOException("Compressed request body exceeds " + limit + " bytes");
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    inflated = decoder.decode(new ByteArrayInputStream(body.toByteArray()));
+                    ready = true;
+                    readListener.onDataAvailable();
+                    if (finished) readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflated != null) {
+                inflated.close();
+            } else {
+                compressed.close();
+            }
+        }
+    }
+}
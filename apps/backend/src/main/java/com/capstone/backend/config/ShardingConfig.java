@@ -0,0 +1,67 @@
+package com.capstone.backend.config;
+
+import com.capstone.backend.repository.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a router over all scene shards.
+ * JPA, Flyway and JdbcTemplate keep using the single DataSource bean; without a shard selected
+ * (see ShardContext) it is shard 0, so a deployment without scene.sharding.shards behaves as before.
+ * The bean opens its connection at the first statement rather than when a transaction starts, so a @Transactional
+ * method can still pick the shard (SceneShardRouter.inShard) once it knows which scene it works on.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties,
+                                             Environment environment) {
+        // spring.datasource.hikari.* (timeouts, pool size, ...) as Spring Boot's own DataSource would get it;
+        // the scene shards start from the same settings and override connection and pool size per shard
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>();
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName("shard-0");
+        shards.add(primary);
+
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+            dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.add(dataSource);
+        }
+
+        return new ShardRoutingDataSource(shards);
+    }
+}
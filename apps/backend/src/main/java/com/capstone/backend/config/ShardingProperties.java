@@ -0,0 +1,31 @@
+package com.capstone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scene shards (scene.sharding.*)
+ * Shard 0 is always spring.datasource, which also holds the users table;
+ * the shards listed here become shards 1..N. Their pools take spring.datasource.hikari.* like shard 0,
+ * connection and pool size come from the entry.
+ */
+@Data
+@ConfigurationProperties(prefix = "scene.sharding")
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    // Scene id -> owner entries remembered by SceneShardRouter
+    private int locationCacheSize = 10000;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
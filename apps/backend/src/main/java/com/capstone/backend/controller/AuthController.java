@@ -3,8 +3,11 @@ package com.capstone.backend.controller;
 import com.capstone.backend.dto.AuthResponse;
 import com.capstone.backend.dto.LoginRequest;
 import com.capstone.backend.dto.SignupRequest;
+import com.capstone.backend.dto.UserAvailabilityResponse;
 import com.capstone.backend.service.AuthService;
+import com.capstone.backend.service.UserAvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final UserAvailabilityService userAvailabilityService;
 
     @Operation(summary = "회원가입", description = "새로운 사용자를 등록합니다.")
     @ApiResponses(value = {
@@ -60,6 +64,34 @@ public class AuthController {
         }
     }
 
+    @Operation(summary = "username / email 사용 가능 여부 확인",
+            description = "회원가입 입력 중 중복 여부를 확인합니다. 서버 메모리의 Bloom filter로 먼저 확인하고, "
+                    + "이미 있을 수도 있는 경우에만 데이터베이스를 조회합니다. 최종 중복 검사는 회원가입 시 수행됩니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "확인 성공",
+            content = @Content(schema = @Schema(implementation = UserAvailabilityResponse.class))),
+        @ApiResponse(responseCode = "400", description = "username과 email이 모두 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(
+            @Parameter(description = "확인할 username") @RequestParam(required = false) String username,
+            @Parameter(description = "확인할 email") @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Username or email is required"));
+        }
+
+        UserAvailabilityResponse.UserAvailabilityResponseBuilder response = UserAvailabilityResponse.builder();
+        if (username != null && !username.isBlank()) {
+            response.username(username).usernameAvailable(userAvailabilityService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            response.email(email).emailAvailable(userAvailabilityService.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(response.build());
+    }
+
     // Error response class
     record ErrorResponse(String message) {}
 }
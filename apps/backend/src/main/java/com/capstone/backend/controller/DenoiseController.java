@@ -0,0 +1,82 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.render.AtrousDenoiser;
+import com.capstone.backend.service.DenoiseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Tag(name = "Denoise", description = "Path tracing 결과 디노이즈 API - rgba32float 이미지")
+@RestController
+@RequestMapping("/denoise")
+@RequiredArgsConstructor
+public class DenoiseController {
+
+    private final DenoiseService denoiseService;
+
+    @Operation(summary = "프레임 디노이즈",
+            description = "GPU에서 읽어온 Path tracing 결과(rgba32float, little-endian)를 edge-aware à-trous 필터로 디노이즈합니다. "
+                    + "이미지는 빈틈없이 채운 형식과 행을 256바이트로 정렬한 WebGPU readback 형식을 모두 지원합니다. "
+                    + "gbuffer(PT_01_GBufferPass의 visibility buffer)를 주면 Instance/Material 경계를 넘어 흐려지지 않으며, "
+                    + "albedo/normal/depth(r 채널)를 주면 각각 텍스처 보존과 edge 판별에 사용합니다. "
+                    + "결과는 같은 크기의 rgba32float(빈틈없이 채운 형식)이며 alpha는 입력 그대로입니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "디노이즈 성공",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청 (크기 불일치, 최대 픽셀 수 초과 등)",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "동시에 처리 중인 디노이즈 작업이 많음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> denoise(
+            @Parameter(description = "이미지 너비", required = true) @RequestParam int width,
+            @Parameter(description = "이미지 높이", required = true) @RequestParam int height,
+            @Parameter(description = "필터 반복 횟수 (1-8)") @RequestParam(defaultValue = "" + AtrousDenoiser.DEFAULT_ITERATIONS) int iterations,
+            @Parameter(description = "Radiance (rgba32float)", required = true) @RequestPart MultipartFile radiance,
+            @Parameter(description = "PT_01 G-Buffer (visibility buffer)") @RequestPart(required = false) MultipartFile gbuffer,
+            @Parameter(description = "Albedo (rgba32float)") @RequestPart(required = false) MultipartFile albedo,
+            @Parameter(description = "Normal (rgba32float, xyz)") @RequestPart(required = false) MultipartFile normal,
+            @Parameter(description = "Depth (rgba32float, r 채널)") @RequestPart(required = false) MultipartFile depth) {
+        try {
+            byte[] result = denoiseService.denoise(width, height, iterations,
+                    bytes(radiance), bytes(gbuffer), bytes(albedo), bytes(normal), bytes(depth));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    private static byte[] bytes(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try {
+            return file.getBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Error response class
+    record ErrorResponse(String message) {}
+}
@@ -1,8 +1,13 @@
 package com.capstone.backend.controller;
 
+import com.capstone.backend.dto.SceneAutosaveResponse;
+import com.capstone.backend.dto.SceneAutosaveResponse.Durability;
+import com.capstone.backend.dto.ScenePageResponse;
 import com.capstone.backend.dto.SceneRequest;
 import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.service.SceneAutosaveService;
 import com.capstone.backend.service.SceneService;
+import com.capstone.backend.service.SceneStreamingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,9 +15,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +35,12 @@ import java.util.List;
 public class SceneController {
 
     private final SceneService sceneService;
+    private final SceneAutosaveService sceneAutosaveService;
+    private final SceneStreamingService sceneStreamingService;
+
+    // GET /scenes/{id} as JSON streams assets from the database instead of building a SceneResponse
+    @Value("${scene.streaming-read.enabled:true}")
+    private boolean streamingRead;
 
     @Operation(summary = "Scene 생성", description = "새로운 Scene을 생성합니다. assets는 JSON 문자열로 전달됩니다.")
     @ApiResponses(value = {
@@ -44,25 +60,68 @@ public class SceneController {
         }
     }
 
-    @Operation(summary = "Scene 조회 (ID)", description = "ID로 특정 Scene을 조회합니다.")
+    @Operation(summary = "Scene 조회 (ID)", description = "ID로 특정 Scene을 조회합니다. " +
+            "보류 중인 자동 저장이 있으면 DB에 쓰지 않고 그 내용을 반영해 반환합니다 (version은 마지막으로 DB에 반영된 버전). " +
+            "JSON 응답은 assets를 메모리에 복사하지 않고 DB에서 읽은 그대로 스트리밍합니다.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Scene 조회 성공",
+        @ApiResponse(responseCode = "200", description = "Scene 조회 성공 (X-Autosave-Pending: 보류 중인 자동 저장 반영 여부)",
             content = @Content(schema = @Schema(implementation = SceneResponse.class))),
         @ApiResponse(responseCode = "404", description = "Scene을 찾을 수 없음",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
     public ResponseEntity<?> getSceneById(
-            @Parameter(description = "Scene ID", required = true) @PathVariable Long id) {
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse httpResponse) {
+        // A pending autosave isn't in the database yet, so that scene is built in memory
+        if (streamingRead && prefersJson(accept) && !sceneAutosaveService.hasPending(id)) {
+            return streamSceneById(id, httpResponse);
+        }
+
         try {
             SceneResponse response = sceneService.getSceneById(id);
-            return ResponseEntity.ok(response);
+            // Read-your-writes: the pending autosave is served, not written
+            boolean pending = sceneAutosaveService.withPending(response);
+            return ResponseEntity.ok()
+                    .header("X-Autosave-Pending", String.valueOf(pending))
+                    .body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Written in the scene's read transaction; the response is only committed once the row was found,
+    // so a missing scene is still a 404
+    private ResponseEntity<?> streamSceneById(Long id, HttpServletResponse response) {
+        try {
+            sceneStreamingService.streamScene(id, () -> {
+                response.setStatus(HttpStatus.OK.value());
+                response.setHeader("X-Autosave-Pending", "false");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                return response.getOutputStream();
+            });
+            return null; // the response is complete
         } catch (RuntimeException e) {
+            if (response.isCommitted()) throw e;
+            response.reset();
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    // JSON is the default; Smile / CBOR / MessagePack (see ContentNegotiationConfig) are asked for by listing them first
+    private static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            return mediaTypes.isEmpty() || mediaTypes.get(0).includes(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
     @Operation(summary = "모든 Scene 조회", description = "시스템의 모든 Scene 목록을 조회합니다.")
     @ApiResponse(responseCode = "200", description = "Scene 목록 조회 성공")
     @GetMapping
@@ -80,6 +139,50 @@ public class SceneController {
         return ResponseEntity.ok(scenes);
     }
 
+    @Operation(summary = "Scene 텍스트 검색", description = "이름 또는 설명에 검색어가 포함된 Scene을 ID 내림차순으로 조회합니다. (keyset pagination) " +
+            "결과의 assets는 항상 null이며, Scene 내용은 ID로 조회합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Scene 검색 성공 (assets 제외)",
+            content = @Content(schema = @Schema(implementation = ScenePageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 검색어 (3자 미만)",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchScenes(
+            @Parameter(description = "검색어 (3자 이상)", example = "room", required = true) @RequestParam String q,
+            @Parameter(description = "이전 페이지의 nextCursor") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "페이지 크기 (최대 100)", example = "20") @RequestParam(required = false) Integer limit) {
+        try {
+            ScenePageResponse response = sceneService.searchScenes(q, cursor, limit);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Mesh 포함 Scene 검색", description = "지정한 Mesh 인스턴스를 포함하는 Scene을 ID 내림차순으로 조회합니다. (keyset pagination) " +
+            "결과의 assets는 항상 null이며, Scene 내용은 ID로 조회합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Scene 검색 성공 (assets 제외)",
+            content = @Content(schema = @Schema(implementation = ScenePageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search/mesh")
+    public ResponseEntity<?> findScenesContainingMesh(
+            @Parameter(description = "Mesh 이름 (GLB 파일명)", example = "Chair", required = true) @RequestParam String meshName,
+            @Parameter(description = "이전 페이지의 nextCursor") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "페이지 크기 (최대 100)", example = "20") @RequestParam(required = false) Integer limit) {
+        try {
+            ScenePageResponse response = sceneService.findScenesContainingMesh(meshName, cursor, limit);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Scene 수정", description = "기존 Scene의 정보를 수정합니다. 소유자만 수정 가능합니다.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Scene 수정 성공",
@@ -92,7 +195,53 @@ public class SceneController {
             @Parameter(description = "Scene ID", required = true) @PathVariable Long id,
             @Valid @RequestBody SceneRequest request) {
         try {
-            SceneResponse response = sceneService.updateScene(id, request);
+            SceneResponse response = sceneAutosaveService.supersedePending(id, () -> sceneService.updateScene(id, request));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Scene 자동 저장", description = "에디터 자동 저장용 엔드포인트입니다. " +
+            "BUFFERED(기본값)는 Scene별 최신 상태만 메모리에 보관하고 scene.autosave.flush-interval-ms 주기로 DB에 반영하며, " +
+            "COMMITTED는 즉시 DB에 반영한 뒤 응답합니다. 소유자만 저장 가능합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "자동 저장 접수 (BUFFERED)",
+            content = @Content(schema = @Schema(implementation = SceneAutosaveResponse.class))),
+        @ApiResponse(responseCode = "200", description = "자동 저장 DB 반영 완료 (COMMITTED)",
+            content = @Content(schema = @Schema(implementation = SceneAutosaveResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청 또는 권한 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/{id}/autosave")
+    public ResponseEntity<?> autosaveScene(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long id,
+            @Parameter(description = "저장 보장 수준 (BUFFERED | COMMITTED)", example = "BUFFERED")
+            @RequestParam(defaultValue = "BUFFERED") Durability durability,
+            @Valid @RequestBody SceneRequest request) {
+        try {
+            SceneAutosaveResponse response = sceneAutosaveService.autosave(id, request, durability);
+            HttpStatus status = response.getDurability() == Durability.BUFFERED ? HttpStatus.ACCEPTED : HttpStatus.OK;
+            return ResponseEntity.status(status).body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Scene 자동 저장 확정", description = "보류 중인 자동 저장을 즉시 DB에 반영합니다. (명시적 저장, 페이지 이탈 시 사용)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "DB 반영 완료",
+            content = @Content(schema = @Schema(implementation = SceneAutosaveResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/{id}/autosave/commit")
+    public ResponseEntity<?> commitAutosave(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long id) {
+        try {
+            SceneAutosaveResponse response = sceneAutosaveService.commit(id);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -112,7 +261,10 @@ public class SceneController {
             @Parameter(description = "Scene ID", required = true) @PathVariable Long id,
             @Parameter(description = "사용자명 (소유자 확인용)", example = "testuser", required = true) @RequestParam String username) {
         try {
-            sceneService.deleteScene(id, username);
+            sceneAutosaveService.supersedePending(id, () -> {
+                sceneService.deleteScene(id, username);
+                return null;
+            });
             return ResponseEntity.ok(new SuccessResponse("Scene deleted successfully"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,151 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.dto.SceneCostResponse;
+import com.capstone.backend.render.LightSamplingTable;
+import com.capstone.backend.render.SceneVersionCache;
+import com.capstone.backend.render.WorldBufferPacker;
+import com.capstone.backend.service.LightSamplingService;
+import com.capstone.backend.service.SceneCostService;
+import com.capstone.backend.service.WorldBufferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@Tag(name = "Scene Render Data", description = "렌더링용 사전 계산 데이터 API - GPU 버퍼 형식")
+@RestController
+@RequestMapping("/scenes/{sceneId}")
+@RequiredArgsConstructor
+public class SceneRenderController {
+
+    private final LightSamplingService lightSamplingService;
+    private final WorldBufferService worldBufferService;
+    private final SceneCostService sceneCostService;
+
+    @Operation(summary = "Light 샘플링 테이블 조회",
+            description = "Light와 발광(emissive) 삼각형의 방출 에너지에 비례하는 CDF와 alias 테이블을 GPU 버퍼 형식(little-endian)으로 반환합니다. "
+                    + "항목은 Light N개 뒤에 발광 삼각형 E개가 오며, 앞부분 N+E개의 f32는 CDF(발광 삼각형이 없으면 기존 LightCDFBuffer와 같은 형식), "
+                    + "뒤이어 항목마다 {threshold: f32, alias: u32, pdf: f32}, 마지막으로 발광 삼각형마다 {P0, P1, P2, Emission: f32x3}가 옵니다. "
+                    + "Scene 버전별로 캐시되며 ETag를 지원합니다. Mesh 에셋을 읽지 못한 Instance는 발광 삼각형에서 빠지며, 이 경우 캐시하지 않고 ETag가 light-sampling-partial로 구분됩니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "조회 성공 (X-Light-Count: Light 개수, X-Emissive-Triangle-Count: 발광 삼각형 개수, X-Scene-Version: Scene 버전)",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)),
+        @ApiResponse(responseCode = "304", description = "변경 없음 (If-None-Match)"),
+        @ApiResponse(responseCode = "404", description = "Scene을 찾을 수 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/light-sampling")
+    public ResponseEntity<?> getLightSampling(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId,
+            WebRequest webRequest) {
+        SceneVersionCache.Entry<LightSamplingTable> entry;
+        try {
+            entry = lightSamplingService.getLightSamplingTable(sceneId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+
+        // Tables with missing meshes change once the asset appears, without a new scene version
+        String resource = entry.value().missingMeshes().isEmpty() ? "light-sampling" : "light-sampling-partial";
+        String eTag = versionETag(resource, sceneId, entry.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .header("X-Scene-Version", String.valueOf(entry.version()))
+                .header("X-Light-Count", String.valueOf(entry.value().lightCount()))
+                .header("X-Emissive-Triangle-Count", String.valueOf(entry.value().emissiveTriangleCount()))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(entry.value().buffer());
+    }
+
+    @Operation(summary = "World 버퍼 조회",
+            description = "Scene의 Instance, MeshDescriptor, Material, Light, Light 샘플링 테이블, Vertex/Index/SubBlasRoot, BLAS, "
+                    + "Mesh 테이블을 셰이더와 같은 stride/레이아웃으로 미리 묶은 바이너리(little-endian)를 한 번에 반환합니다. "
+                    + "헤더의 섹션 디스크립터에 각 섹션의 offset/length/stride(u32 단위)가 있으며, 섹션 순서대로 Scene/Geometry/Accel 버퍼에 그대로 복사할 수 있습니다. "
+                    + "Scene 버전별로 캐시되며 ETag를 지원합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "조회 성공 (X-Scene-Version: Scene 버전)",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)),
+        @ApiResponse(responseCode = "304", description = "변경 없음 (If-None-Match)"),
+        @ApiResponse(responseCode = "404", description = "Scene을 찾을 수 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/world-buffer")
+    public ResponseEntity<?> getWorldBuffer(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId,
+            WebRequest webRequest) {
+        SceneVersionCache.Entry<byte[]> entry;
+        try {
+            entry = worldBufferService.getWorldBuffer(sceneId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+
+        String eTag = versionETag("world-buffer-v" + WorldBufferPacker.FORMAT_VERSION, sceneId, entry.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .header("X-Scene-Version", String.valueOf(entry.version()))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(entry.value());
+    }
+
+    @Operation(summary = "Scene 렌더링 비용 예측",
+            description = "로딩 전에 품질 설정을 고를 수 있도록 Scene의 삼각형/Instance/Light 수, Vertex/Index/BLAS/TLAS/Material/텍스처 GPU 버퍼 크기, "
+                    + "BVH SAH 비용(ray당 예상 작업량)과 해상도 단계별 권장 샘플 수를 반환합니다. "
+                    + "Mesh 통계는 GLB 에셋에서 계산합니다. Scene 버전별로 캐시되며 ETag를 지원합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "조회 성공",
+            content = @Content(schema = @Schema(implementation = SceneCostResponse.class))),
+        @ApiResponse(responseCode = "304", description = "변경 없음 (If-None-Match)"),
+        @ApiResponse(responseCode = "404", description = "Scene을 찾을 수 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cost")
+    public ResponseEntity<?> getSceneCost(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId,
+            WebRequest webRequest) {
+        SceneVersionCache.Entry<SceneCostResponse> entry;
+        try {
+            entry = sceneCostService.getSceneCost(sceneId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+
+        // Estimates with missing meshes change once the asset appears, without a new scene version
+        String resource = entry.value().getMissingMeshes().isEmpty() ? "cost" : "cost-partial";
+        String eTag = versionETag(resource, sceneId, entry.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(entry.value());
+    }
+
+    private static String versionETag(String resource, Long sceneId, int version) {
+        return "\"" + resource + "-" + sceneId + "-" + version + "\"";
+    }
+
+    // Error response class
+    record ErrorResponse(String message) {}
+}
@@ -0,0 +1,96 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.dto.SceneVersionSummary;
+import com.capstone.backend.service.SceneAutosaveService;
+import com.capstone.backend.service.SceneService;
+import com.capstone.backend.service.SceneVersionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Scene Version", description = "Scene 버전 히스토리 API - 저장 이력 조회 및 복원")
+@RestController
+@RequestMapping("/scenes/{sceneId}/versions")
+@RequiredArgsConstructor
+public class SceneVersionController {
+
+    private final SceneVersionService sceneVersionService;
+    private final SceneService sceneService;
+    private final SceneAutosaveService sceneAutosaveService;
+
+    @Operation(summary = "Scene 버전 목록 조회", description = "보관 중인 Scene 버전 목록을 최신순으로 조회합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "버전 목록 조회 성공",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = SceneVersionSummary.class)))),
+        @ApiResponse(responseCode = "404", description = "Scene을 찾을 수 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<?> getVersions(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId) {
+        try {
+            List<SceneVersionSummary> versions = sceneVersionService.getVersions(sceneId);
+            return ResponseEntity.ok(versions);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Scene 버전 조회", description = "특정 버전의 Scene 내용을 조회합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "버전 조회 성공",
+            content = @Content(schema = @Schema(implementation = SceneResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Scene 또는 버전을 찾을 수 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{version}")
+    public ResponseEntity<?> getVersion(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId,
+            @Parameter(description = "버전 번호", required = true) @PathVariable Integer version) {
+        try {
+            SceneResponse response = sceneVersionService.getVersion(sceneId, version);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Scene 버전 복원", description = "Scene을 특정 버전의 내용으로 되돌립니다. 복원 결과는 새 버전으로 저장됩니다. 소유자만 가능합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "복원 성공",
+            content = @Content(schema = @Schema(implementation = SceneResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청 또는 권한 없음",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/{version}/restore")
+    public ResponseEntity<?> restoreVersion(
+            @Parameter(description = "Scene ID", required = true) @PathVariable Long sceneId,
+            @Parameter(description = "복원할 버전 번호", required = true) @PathVariable Integer version,
+            @Parameter(description = "사용자명 (소유자 확인용)", example = "testuser", required = true) @RequestParam String username) {
+        try {
+            SceneResponse response = sceneAutosaveService.supersedePending(sceneId,
+                    () -> sceneService.restoreSceneVersion(sceneId, version, username));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Error response class
+    record ErrorResponse(String message) {}
+}
@@ -0,0 +1,63 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.dto.ShardMoveResponse;
+import com.capstone.backend.dto.ShardStatusResponse;
+import com.capstone.backend.service.SceneShardRebalancer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Operational endpoints, only registered with scene.sharding.admin.enabled=true
+@Tag(name = "Shard Admin", description = "Scene 샤드 관리 API - 샤드 현황 조회 및 사용자 이동")
+@RestController
+@RequestMapping("/admin/shards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "scene.sharding.admin", name = "enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private final SceneShardRebalancer sceneShardRebalancer;
+
+    @Operation(summary = "샤드 현황 조회", description = "샤드별 사용자 수와 Scene 수를 조회합니다.")
+    @ApiResponse(responseCode = "200", description = "샤드 현황 조회 성공",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = ShardStatusResponse.class))))
+    @GetMapping
+    public ResponseEntity<List<ShardStatusResponse>> getShardStatus() {
+        return ResponseEntity.ok(sceneShardRebalancer.getShardStatus());
+    }
+
+    @Operation(summary = "사용자 샤드 이동", description = "사용자의 모든 Scene과 버전 히스토리를 다른 샤드로 옮깁니다. " +
+            "복사 중에도 사용자는 계속 작업할 수 있으며, 마지막 전환 단계에서만 해당 사용자의 요청이 잠시 대기합니다.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "이동 성공",
+            content = @Content(schema = @Schema(implementation = ShardMoveResponse.class))),
+        @ApiResponse(responseCode = "400", description = "잘못된 요청 (사용자 없음, 잘못된 샤드, 이동 중)",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/moves")
+    public ResponseEntity<?> moveUser(
+            @Parameter(description = "사용자명", example = "testuser", required = true) @RequestParam String username,
+            @Parameter(description = "이동할 샤드 번호", example = "1", required = true) @RequestParam Integer targetShard) {
+        try {
+            ShardMoveResponse response = sceneShardRebalancer.moveUser(username, targetShard);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Error response class
+    record ErrorResponse(String message) {}
+}
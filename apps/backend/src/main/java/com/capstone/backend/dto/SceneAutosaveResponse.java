@@ -0,0 +1,29 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Scene 자동 저장 응답")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SceneAutosaveResponse {
+
+    public enum Durability {
+        BUFFERED,  // accepted in memory, written to the database by the next flush
+        COMMITTED  // written to the database
+    }
+
+    @Schema(description = "Scene 고유번호", example = "1")
+    private Long sceneId;
+
+    @Schema(description = "저장 상태 (BUFFERED: 메모리에 보관 후 주기적으로 DB 반영, COMMITTED: DB 반영 완료)", example = "BUFFERED")
+    private Durability durability;
+
+    @Schema(description = "DB에 반영된 Scene 버전 (COMMITTED일 때)", example = "4")
+    private Integer version;
+}
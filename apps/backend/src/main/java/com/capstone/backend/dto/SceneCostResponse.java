@@ -0,0 +1,158 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Scene 렌더링 비용 예측")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SceneCostResponse {
+    @Schema(description = "Scene ID", example = "1")
+    private Long sceneId;
+
+    @Schema(description = "분석한 Scene 버전", example = "7")
+    private Integer version;
+
+    @Schema(description = "Instance(object asset) 개수", example = "12")
+    private Integer instanceCount;
+
+    @Schema(description = "사용된 Mesh 종류 수", example = "5")
+    private Integer meshCount;
+
+    @Schema(description = "모든 Instance의 삼각형 수 합계", example = "84210")
+    private Long triangleCount;
+
+    @Schema(description = "GPU에 올라가는 삼각형 수 (Mesh당 한 번)", example = "40512")
+    private Long uniqueTriangleCount;
+
+    @Schema(description = "Light 개수", example = "3")
+    private Integer lightCount;
+
+    @Schema(description = "Directional Light 개수", example = "1")
+    private Integer directionalLightCount;
+
+    @Schema(description = "Point Light 개수", example = "1")
+    private Integer pointLightCount;
+
+    @Schema(description = "Rect Light 개수", example = "1")
+    private Integer rectLightCount;
+
+    @Schema(description = "에셋을 찾을 수 없어 계산에서 제외된 Mesh 이름")
+    private List<String> missingMeshes;
+
+    @Schema(description = "GPU 버퍼 크기 (byte)")
+    private GpuMemory memory;
+
+    @Schema(description = "BVH 크기와 SAH 비용")
+    private BvhCost bvh;
+
+    @Schema(description = "권장 품질 설정")
+    private Recommendation recommendation;
+
+    @Schema(description = "GPU 버퍼 크기 (byte) - Structs.ts의 stride 기준")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class GpuMemory {
+        @Schema(description = "Vertex 배열 (32 byte/vertex)", example = "1245184")
+        private Long vertexBytes;
+
+        @Schema(description = "Index 배열 (4 byte/index)", example = "486144")
+        private Long indexBytes;
+
+        @Schema(description = "BLAS 노드 (32 byte/node)", example = "414720")
+        private Long blasBytes;
+
+        @Schema(description = "TLAS 노드 (32 byte/node, Instance 이진 트리 기준)", example = "736")
+        private Long tlasBytes;
+
+        @Schema(description = "Material 배열 (60 byte/material)", example = "660")
+        private Long materialBytes;
+
+        @Schema(description = "Material이 참조하는 텍스처 (rgba8 + mipmap)", example = "5592405")
+        private Long textureBytes;
+
+        @Schema(description = "Instance 배열 (132 byte/instance)", example = "1584")
+        private Long instanceBytes;
+
+        @Schema(description = "Light 배열과 CDF (76 byte/light)", example = "228")
+        private Long lightBytes;
+
+        @Schema(description = "Scene 버퍼 (Instance + MeshDescriptor + Material + Light + CDF)", example = "2592")
+        private Long sceneBufferBytes;
+
+        @Schema(description = "Geometry 버퍼 (Vertex + Index + SubBlasRoot)", example = "1731372")
+        private Long geometryBufferBytes;
+
+        @Schema(description = "Accel 버퍼 (TLAS + BLAS)", example = "415456")
+        private Long accelBufferBytes;
+
+        @Schema(description = "버퍼와 텍스처 합계", example = "7741825")
+        private Long totalBytes;
+    }
+
+    @Schema(description = "BVH 크기와 SAH 비용 - 비용은 Scene 경계에 들어온 ray 하나의 예상 작업량 (노드 방문 1, 삼각형 교차 1.25)")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BvhCost {
+        @Schema(description = "TLAS 노드 수", example = "23")
+        private Integer tlasNodeCount;
+
+        @Schema(description = "BLAS 노드 수 (Mesh당 한 번)", example = "12960")
+        private Integer blasNodeCount;
+
+        @Schema(description = "TLAS와 BLAS를 합친 ray당 SAH 비용", example = "48.7")
+        private Double sahCost;
+
+        @Schema(description = "Mesh별 BLAS SAH 비용 중 최대값", example = "63.4")
+        private Double maxBlasSahCost;
+    }
+
+    @Schema(description = "권장 품질 설정")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Recommendation {
+        @Schema(description = "권장 해상도 단계", example = "1080p")
+        private String resolutionTier;
+
+        @Schema(description = "권장 프레임당 샘플 수 (spp)", example = "4")
+        private Integer samplesPerPixel;
+
+        @Schema(description = "해상도 단계별 프레임 예산 내 샘플 수")
+        private List<Tier> tiers;
+
+        @Schema(description = "경고 (버퍼 크기 제한 초과, 누락된 Mesh 등)")
+        private List<String> warnings;
+    }
+
+    @Schema(description = "해상도 단계")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Tier {
+        @Schema(description = "이름", example = "1080p")
+        private String name;
+
+        @Schema(description = "너비", example = "1920")
+        private Integer width;
+
+        @Schema(description = "높이", example = "1080")
+        private Integer height;
+
+        @Schema(description = "프레임 예산 내 샘플 수 (0이면 예산 초과)", example = "4")
+        private Integer samplesPerPixel;
+    }
+}
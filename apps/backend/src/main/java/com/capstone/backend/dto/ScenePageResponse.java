@@ -0,0 +1,22 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Scene 목록 페이지 응답 (keyset pagination)")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScenePageResponse {
+    @Schema(description = "현재 페이지의 Scene 목록 (ID 내림차순, assets 제외)")
+    private List<SceneResponse> scenes;
+
+    @Schema(description = "다음 페이지 조회 시 cursor로 전달할 값 (마지막 페이지면 null)", example = "42")
+    private Long nextCursor;
+}
@@ -26,12 +26,15 @@ public class SceneResponse {
     @Schema(description = "썸네일 URL", example = "https://example.com/thumbnail.jpg")
     private String thumbnailUrl;
 
-    @Schema(description = "Scene assets JSON 문자열")
+    @Schema(description = "Scene assets JSON 문자열 (검색 결과에는 포함되지 않음)")
     private String assets; // JSON string
 
     @Schema(description = "Scene 소유자 사용자명", example = "testuser")
     private String username;
 
+    @Schema(description = "Scene 버전", example = "3")
+    private Integer version;
+
     @Schema(description = "생성 시각")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,27 @@
+package com.capstone.backend.dto;
+
+import com.capstone.backend.entity.SceneVersion;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Scene 버전 목록 항목")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SceneVersionSummary {
+    @Schema(description = "버전 번호", example = "3")
+    private Integer version;
+
+    @Schema(description = "저장 방식 (SNAPSHOT: 전체 저장, DELTA: 이전 버전과의 차이만 저장)", example = "DELTA")
+    private SceneVersion.Kind kind;
+
+    @Schema(description = "해당 버전의 Scene 이름", example = "My Test Room")
+    private String name;
+
+    @Schema(description = "저장 시각")
+    private LocalDateTime createdAt;
+}
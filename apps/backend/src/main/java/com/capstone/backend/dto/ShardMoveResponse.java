@@ -0,0 +1,29 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "사용자 샤드 이동 결과")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardMoveResponse {
+    @Schema(description = "사용자명", example = "testuser")
+    private String username;
+
+    @Schema(description = "이동 전 샤드", example = "0")
+    private Integer sourceShard;
+
+    @Schema(description = "이동 후 샤드", example = "2")
+    private Integer targetShard;
+
+    @Schema(description = "이동한 Scene 수", example = "12")
+    private Integer movedScenes;
+
+    @Schema(description = "복사 패스 수 (온라인 복사 + 최종 동기화)", example = "3")
+    private Integer copyPasses;
+}
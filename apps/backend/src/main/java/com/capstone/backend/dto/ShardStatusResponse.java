@@ -0,0 +1,23 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Scene 샤드 현황")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardStatusResponse {
+    @Schema(description = "샤드 번호 (0: spring.datasource)", example = "1")
+    private Integer shard;
+
+    @Schema(description = "이 샤드에 배정된 사용자 수", example = "42")
+    private Long users;
+
+    @Schema(description = "이 샤드에 저장된 Scene 수", example = "310")
+    private Long scenes;
+}
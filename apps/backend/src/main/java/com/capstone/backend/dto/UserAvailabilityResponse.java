@@ -0,0 +1,26 @@
+package com.capstone.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "username / email 사용 가능 여부 (요청하지 않은 항목은 null)")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserAvailabilityResponse {
+    @Schema(description = "확인한 username", example = "testuser")
+    private String username;
+
+    @Schema(description = "username 사용 가능 여부", example = "true")
+    private Boolean usernameAvailable;
+
+    @Schema(description = "확인한 email", example = "test@example.com")
+    private String email;
+
+    @Schema(description = "email 사용 가능 여부", example = "false")
+    private Boolean emailAvailable;
+}
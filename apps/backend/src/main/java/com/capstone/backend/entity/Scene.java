@@ -40,9 +40,17 @@ public class Scene {
     @Column(columnDefinition = "jsonb", nullable = false)
     private String assets;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
+    // Owner, denormalized: scenes live on the owner's shard while users stay on shard 0
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 50)
+    private String ownerUsername;
+
+    // Latest entry in scene_versions; 0 for scenes saved before version history existed
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer currentVersion = 0;
 
     @CreatedDate
     @Column(nullable = false, updatable = false)
@@ -13,8 +13,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "username"),
-    @UniqueConstraint(columnNames = "email")
+    @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_users_email", columnNames = "email")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -27,7 +27,9 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 50)
+    // Copied to scenes.owner_username on the owner's shard, so it never changes (enforced on shard 0 by V6).
+    // No user is deleted; deleting one must first delete their scenes on shard and stale_shard.
+    @Column(nullable = false, unique = true, length = 50, updatable = false)
     private String username;
 
     @Column(nullable = false)
@@ -39,6 +41,15 @@ public class User {
     @Column(nullable = false, length = 50)
     private String nickname;
 
+    // Shard holding this user's scenes (see SceneShardRouter), changed only by SceneShardRebalancer
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer shard = 0;
+
+    // Shard holding a copy of this user's scenes that reads ignore: during a move, or left over by a failed one
+    @Column(name = "stale_shard")
+    private Integer staleShard;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,269 @@
+package com.capstone.backend.render;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Edge-aware à-trous wavelet denoiser (the spatial filter of SVGF, without temporal accumulation)
+ * - radiance is demodulated by albedo when available, so texture detail isn't blurred, and remodulated at the end
+ * - per-pixel luminance variance is estimated spatially (5x5 on the same surface) and filtered along with the color
+ * - each iteration applies a 5x5 B3-spline kernel with holes (step 1, 2, 4, ...), weighted by
+ *   surface id (instance + material from PT_01_GBufferPass), normal, depth and variance-scaled luminance
+ *
+ * Every guide is optional. All images are planar primitive arrays (one float[] per channel, row-major),
+ * and every pass processes rows in parallel on the given pool.
+ */
+public final class AtrousDenoiser {
+
+    public static final int DEFAULT_ITERATIONS = 5;
+    public static final int MAX_ITERATIONS = 8;
+
+    public static final int NO_SURFACE = -1;
+
+    private static final float[] KERNEL = {1f / 16f, 1f / 4f, 3f / 8f, 1f / 4f, 1f / 16f};
+    private static final int RADIUS = 2;
+
+    // Edge-stopping parameters from the SVGF paper
+    private static final float SIGMA_LUMINANCE = 4f;
+    private static final float SIGMA_DEPTH = 1f;
+    private static final int NORMAL_POWER_SQUARINGS = 7; // max(0, dot(n_p, n_q))^128
+
+    private static final float ALBEDO_EPSILON = 1e-3f;
+    private static final float EPSILON = 1e-6f;
+
+    /**
+     * Input planes of one frame; albedo, normal, depth and surfaceId may be null.
+     * @param radiance  r, g, b planes
+     * @param albedo    r, g, b planes
+     * @param normal    x, y, z planes (unit length)
+     * @param depth     view depth or hit distance
+     * @param surfaceId per-pixel surface id, NO_SURFACE for background
+     */
+    public record Frame(int width, int height,
+                        float[][] radiance, float[][] albedo, float[][] normal,
+                        float[] depth, int[] surfaceId) {}
+
+    private AtrousDenoiser() {
+    }
+
+    /**
+     * @return denoised r, g, b planes
+     */
+    public static float[][] denoise(Frame frame, int iterations, ForkJoinPool pool) {
+        int width = frame.width();
+        int height = frame.height();
+        int pixels = width * height;
+
+        float[] red = new float[pixels];
+        float[] green = new float[pixels];
+        float[] blue = new float[pixels];
+        float[] variance = new float[pixels];
+
+        // 1. Demodulate: filter irradiance instead of radiance
+        forEachRow(pool, height, y -> demodulateRow(frame, y, red, green, blue));
+
+        // 2. Spatial variance estimate and depth gradients used by the edge-stopping functions
+        float[] luminance = new float[pixels];
+        forEachRow(pool, height, y -> luminanceRow(width, y, red, green, blue, luminance));
+        forEachRow(pool, height, y -> varianceRow(frame, y, luminance, variance));
+
+        float[] depthGradientX = null;
+        float[] depthGradientY = null;
+        if (frame.depth() != null) {
+            float[] gradientX = new float[pixels];
+            float[] gradientY = new float[pixels];
+            forEachRow(pool, height, y -> depthGradientRow(frame, y, gradientX, gradientY));
+            depthGradientX = gradientX;
+            depthGradientY = gradientY;
+        }
+
+        // 3. À-trous iterations, ping-ponging between two sets of planes
+        float[][] source = {red, green, blue, variance};
+        float[][] target = {new float[pixels], new float[pixels], new float[pixels], new float[pixels]};
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            int step = 1 << iteration;
+            float[][] in = source;
+            float[][] out = target;
+            float[] gradientX = depthGradientX;
+            float[] gradientY = depthGradientY;
+            forEachRow(pool, height, y -> filterRow(frame, y, step, in, out, gradientX, gradientY));
+            source = out;
+            target = in;
+        }
+
+        // 4. Remodulate
+        float[][] result = {source[0], source[1], source[2]};
+        if (frame.albedo() != null) {
+            forEachRow(pool, height, y -> remodulateRow(frame, y, result));
+        }
+        return result;
+    }
+
+    private static void demodulateRow(Frame frame, int y, float[] red, float[] green, float[] blue) {
+        int start = y * frame.width();
+        int end = start + frame.width();
+        float[][] radiance = frame.radiance();
+        float[][] albedo = frame.albedo();
+
+        if (albedo == null) {
+            System.arraycopy(radiance[0], start, red, start, frame.width());
+            System.arraycopy(radiance[1], start, green, start, frame.width());
+            System.arraycopy(radiance[2], start, blue, start, frame.width());
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            red[i] = radiance[0][i] / Math.max(albedo[0][i], ALBEDO_EPSILON);
+            green[i] = radiance[1][i] / Math.max(albedo[1][i], ALBEDO_EPSILON);
+            blue[i] = radiance[2][i] / Math.max(albedo[2][i], ALBEDO_EPSILON);
+        }
+    }
+
+    private static void remodulateRow(Frame frame, int y, float[][] result) {
+        int start = y * frame.width();
+        int end = start + frame.width();
+        float[][] albedo = frame.albedo();
+
+        for (int i = start; i < end; i++) {
+            result[0][i] *= Math.max(albedo[0][i], ALBEDO_EPSILON);
+            result[1][i] *= Math.max(albedo[1][i], ALBEDO_EPSILON);
+            result[2][i] *= Math.max(albedo[2][i], ALBEDO_EPSILON);
+        }
+    }
+
+    private static void luminanceRow(int width, int y, float[] red, float[] green, float[] blue, float[] luminance) {
+        int start = y * width;
+        int end = start + width;
+        for (int i = start; i < end; i++) {
+            luminance[i] = luminance(red[i], green[i], blue[i]);
+        }
+    }
+
+    // Variance of the luminance over the 5x5 neighbourhood on the same surface
+    private static void varianceRow(Frame frame, int y, float[] luminance, float[] variance) {
+        int width = frame.width();
+        int height = frame.height();
+        int[] surfaceId = frame.surfaceId();
+
+        for (int x = 0; x < width; x++) {
+            int p = y * width + x;
+            float sum = 0f;
+            float sumSquares = 0f;
+            int count = 0;
+
+            for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+                int qy = y + dy;
+                if (qy < 0 || qy >= height) continue;
+                for (int dx = -RADIUS; dx <= RADIUS; dx++) {
+                    int qx = x + dx;
+                    if (qx < 0 || qx >= width) continue;
+                    int q = qy * width + qx;
+                    if (surfaceId != null && surfaceId[q] != surfaceId[p]) continue;
+
+                    float l = luminance[q];
+                    sum += l;
+                    sumSquares += l * l;
+                    count++;
+                }
+            }
+
+            float mean = sum / count;
+            variance[p] = Math.max(0f, sumSquares / count - mean * mean);
+        }
+    }
+
+    // Screen-space depth derivatives (central differences); predict the expected
+    // depth change towards a neighbour, so slanted surfaces aren't mistaken for edges
+    private static void depthGradientRow(Frame frame, int y, float[] gradientX, float[] gradientY) {
+        int width = frame.width();
+        int height = frame.height();
+        float[] depth = frame.depth();
+
+        for (int x = 0; x < width; x++) {
+            int p = y * width + x;
+            int left = x > 0 ? p - 1 : p;
+            int right = x < width - 1 ? p + 1 : p;
+            int up = y > 0 ? p - width : p;
+            int down = y < height - 1 ? p + width : p;
+
+            gradientX[p] = right == left ? 0f : (depth[right] - depth[left]) / (right - left);
+            gradientY[p] = down == up ? 0f : (depth[down] - depth[up]) / ((down - up) / width);
+        }
+    }
+
+    private static void filterRow(Frame frame, int y, int step, float[][] in, float[][] out,
+                                  float[] depthGradientX, float[] depthGradientY) {
+        int width = frame.width();
+        int height = frame.height();
+        int[] surfaceId = frame.surfaceId();
+        float[][] normal = frame.normal();
+        float[] depth = frame.depth();
+
+        float[] red = in[0];
+        float[] green = in[1];
+        float[] blue = in[2];
+        float[] variance = in[3];
+
+        for (int x = 0; x < width; x++) {
+            int p = y * width + x;
+            float luminanceP = luminance(red[p], green[p], blue[p]);
+            float luminanceScale = 1f / (SIGMA_LUMINANCE * (float) Math.sqrt(variance[p]) + EPSILON);
+
+            float centerWeight = KERNEL[RADIUS] * KERNEL[RADIUS];
+            float sumWeight = centerWeight;
+            float sumRed = red[p] * centerWeight;
+            float sumGreen = green[p] * centerWeight;
+            float sumBlue = blue[p] * centerWeight;
+            float sumVariance = variance[p] * centerWeight * centerWeight;
+
+            for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+                int qy = y + dy * step;
+                if (qy < 0 || qy >= height) continue;
+
+                for (int dx = -RADIUS; dx <= RADIUS; dx++) {
+                    int qx = x + dx * step;
+                    if ((dx == 0 && dy == 0) || qx < 0 || qx >= width) continue;
+                    int q = qy * width + qx;
+
+                    if (surfaceId != null && surfaceId[q] != surfaceId[p]) continue;
+
+                    float weight = KERNEL[dx + RADIUS] * KERNEL[dy + RADIUS];
+
+                    if (normal != null) {
+                        float cosine = normal[0][p] * normal[0][q] + normal[1][p] * normal[1][q] + normal[2][p] * normal[2][q];
+                        if (cosine <= 0f) continue;
+                        for (int i = 0; i < NORMAL_POWER_SQUARINGS; i++) cosine *= cosine;
+                        weight *= cosine;
+                    }
+
+                    float exponent = Math.abs(luminanceP - luminance(red[q], green[q], blue[q])) * luminanceScale;
+                    if (depth != null) {
+                        float expectedChange = Math.abs(depthGradientX[p] * dx * step + depthGradientY[p] * dy * step);
+                        exponent += Math.abs(depth[p] - depth[q]) / (SIGMA_DEPTH * expectedChange + EPSILON);
+                    }
+                    weight *= (float) Math.exp(-exponent);
+
+                    sumWeight += weight;
+                    sumRed += red[q] * weight;
+                    sumGreen += green[q] * weight;
+                    sumBlue += blue[q] * weight;
+                    sumVariance += variance[q] * weight * weight;
+                }
+            }
+
+            out[0][p] = sumRed / sumWeight;
+            out[1][p] = sumGreen / sumWeight;
+            out[2][p] = sumBlue / sumWeight;
+            out[3][p] = sumVariance / (sumWeight * sumWeight);
+        }
+    }
+
+    private static float luminance(float red, float green, float blue) {
+        return 0.2126f * red + 0.7152f * green + 0.0722f * blue;
+    }
+
+    private static void forEachRow(ForkJoinPool pool, int height, IntConsumer row) {
+        // A parallel stream started from inside the pool runs on that pool instead of the common one
+        pool.submit(() -> IntStream.range(0, height).parallel().forEach(row)).join();
+    }
+}
@@ -0,0 +1,415 @@
+package com.capstone.backend.render;
+
+import com.capstone.backend.render.SceneAssets.LightAsset;
+import com.capstone.backend.render.SceneAssets.ObjectAsset;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Power-proportional light selection tables for ReSTIR DI initial candidates
+ * Entries are the scene's lights (N, in World.Lights order) followed by its emissive triangles (E):
+ * every triangle of an instance whose material has a non-black EmissiveColor * EmissiveIntensity.
+ *
+ * GPU buffer layout (little-endian, 4-byte words, M = N + E):
+ *   [0, M)            CDF       f32   with no emissive triangles, same layout as World.GetLightCDFBuffer (a drop-in LightCDFBuffer)
+ *   [M, 4M)           alias     {threshold: f32, alias: u32, pdf: f32} per entry (Walker / Vose alias method)
+ *   [4M, 4M + 12E)    emissive  {P0, P1, P2: f32x3 world space, Emission: f32x3 = EmissiveColor * EmissiveIntensity}
+ *                               for entry N + k
+ *
+ * Sampling with the alias section: i = floor(u0 * M); pick i if u1 < threshold[i], otherwise alias[i]; pdf = pdf[picked].
+ *
+ * Instances of meshes that can't be loaded contribute no emissive triangles; missingMeshes() lists them.
+ */
+public final class LightSamplingTable {
+
+    public static final int ALIAS_STRIDE = 3;
+    public static final int EMISSIVE_STRIDE = 12;
+
+    private static final double[] LUMINANCE_WEIGHTS = {0.2126, 0.7152, 0.0722};
+
+    private final List<String> lightIds;
+    private final List<JsonNode> lightParams;
+    private final double sceneRadius;
+    private final double[] powers;
+    private final float[] emissiveTriangles;
+    private final Map<String, InstanceEmission> instanceEmissions;
+    private final List<String> missingMeshes;
+    private final byte[] buffer;
+
+    private LightSamplingTable(List<String> lightIds, List<JsonNode> lightParams, double sceneRadius,
+                               double[] powers, EmissiveTriangles emissive, byte[] buffer) {
+        this.lightIds = lightIds;
+        this.lightParams = lightParams;
+        this.sceneRadius = sceneRadius;
+        this.powers = powers;
+        this.emissiveTriangles = emissive.vertices();
+        this.instanceEmissions = emissive.byInstance();
+        this.missingMeshes = emissive.missingMeshes();
+        this.buffer = buffer;
+    }
+
+    /**
+     * Builds the table for the given assets, reusing whatever is unchanged from the previous build:
+     * the power of lights whose parameters didn't change, the emissive triangles of instances whose mesh and
+     * transform didn't change, and the whole GPU buffer when no power and no emissive triangle changed
+     * (e.g. a save that only moved non-emissive furniture).
+     *
+     * @param meshes geometry by mesh name; instances of missing meshes contribute no emissive triangles
+     */
+    public static LightSamplingTable build(SceneAssets assets, Function<String, Optional<MeshGeometry>> meshes,
+                                           LightSamplingTable previous) {
+        List<LightAsset> lights = assets.lights();
+        double sceneRadius = sceneRadius(assets);
+
+        Map<String, Integer> previousIndex = new HashMap<>();
+        if (previous != null) {
+            for (int i = 0; i < previous.lightIds.size(); i++) previousIndex.put(previous.lightIds.get(i), i);
+        }
+
+        EmissiveTriangles emissive = emissiveTriangles(assets, meshes,
+                previous != null ? previous.instanceEmissions : Map.of());
+
+        double[] powers = new double[lights.size() + emissive.powers().length];
+        System.arraycopy(emissive.powers(), 0, powers, lights.size(), emissive.powers().length);
+        for (int i = 0; i < lights.size(); i++) {
+            LightAsset light = lights.get(i);
+            Integer reuse = previousIndex.get(light.id());
+
+            boolean unchanged = reuse != null
+                    && light.params().equals(previous.lightParams.get(reuse))
+                    // Distant light power depends on the scene extent
+                    && (light.type() != SceneAssets.LightType.DIRECTIONAL || sceneRadius == previous.sceneRadius);
+
+            powers[i] = unchanged ? previous.powers[reuse] : emittedPower(light, sceneRadius);
+        }
+
+        List<String> lightIds = lights.stream().map(LightAsset::id).toList();
+        List<JsonNode> lightParams = lights.stream().map(LightAsset::params).toList();
+
+        byte[] buffer = previous != null && Arrays.equals(powers, previous.powers)
+                && Arrays.equals(emissive.vertices(), previous.emissiveTriangles)
+                ? previous.buffer
+                : encode(powers, emissive.vertices());
+
+        return new LightSamplingTable(lightIds, lightParams, sceneRadius, powers, emissive, buffer);
+    }
+
+    /** Lights from the scene assets, the first entries of the table */
+    public int lightCount() {
+        return lightIds.size();
+    }
+
+    public int emissiveTriangleCount() {
+        return emissiveTriangles.length / EMISSIVE_STRIDE;
+    }
+
+    /** Meshes of the scene's instances that couldn't be loaded, so the table lacks their emissive triangles */
+    public List<String> missingMeshes() {
+        return missingMeshes;
+    }
+
+    // World-space emissive triangles of one instance, empty if it emits nothing
+    float[] emissiveTriangles(String instanceId) {
+        InstanceEmission emission = instanceEmissions.get(instanceId);
+        return emission != null ? emission.vertices() : new float[0];
+    }
+
+    public double totalPower() {
+        return Arrays.stream(powers).sum();
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Emitted power (luminance-weighted flux) of a light
+     * - point: 4π I
+     * - rect (one-sided, Area = 4|U||V| as in RectLight): π A I
+     * - directional: π r² I over the scene's bounding sphere, since a distant light has no finite power
+     */
+    static double emittedPower(LightAsset light, double sceneRadius) {
+        double luminance = light.intensity() * luminance(light.color());
+
+        double power = switch (light.type()) {
+            case POINT -> 4.0 * Math.PI * luminance;
+            case RECT -> Math.PI * 4.0 * length(light.u()) * length(light.v()) * luminance;
+            case DIRECTIONAL -> Math.PI * sceneRadius * sceneRadius * luminance;
+        };
+        return Math.max(0.0, power);
+    }
+
+    private record EmissiveTriangles(float[] vertices, double[] powers,
+                                     Map<String, InstanceEmission> byInstance, List<String> missingMeshes) {}
+
+    // Emissive triangles of one instance, valid while its mesh geometry and model matrix stay the same
+    private record InstanceEmission(MeshGeometry geometry, double[] model, float[] vertices, double[] powers) {}
+
+    /**
+     * Emissive triangles in instance order (World.InstancesPool), then mesh index order.
+     * Power of a one-sided diffuse emitter: π A L, with L the luminance of EmissiveColor * EmissiveIntensity
+     * (emissive textures are not uploaded by the client yet, so they are not applied).
+     */
+    private static EmissiveTriangles emissiveTriangles(SceneAssets assets, Function<String, Optional<MeshGeometry>> meshes,
+                                                       Map<String, InstanceEmission> previous) {
+        List<ObjectAsset> instances = WorldBufferPacker.instances(assets);
+        Map<String, Optional<MeshGeometry>> geometries = new HashMap<>();
+        Map<String, InstanceEmission> byInstance = new HashMap<>();
+        List<String> missingMeshes = new ArrayList<>();
+
+        FloatArray vertices = new FloatArray();
+        DoubleArray triangleLights = new DoubleArray();
+        for (ObjectAsset instance : instances) {
+            Optional<MeshGeometry> loaded = geometries.computeIfAbsent(instance.meshName(), meshes);
+            if (loaded.isEmpty()) {
+                if (!missingMeshes.contains(instance.meshName())) missingMeshes.add(instance.meshName());
+                continue;
+            }
+            MeshGeometry geometry = loaded.get();
+            if (!isEmissive(geometry)) continue;
+
+            double[] model = WorldBufferPacker.modelMatrix(instance);
+            InstanceEmission emission = previous.get(instance.id());
+            if (emission == null || emission.geometry() != geometry || !Arrays.equals(emission.model(), model)) {
+                emission = instanceEmission(geometry, model);
+            }
+
+            byInstance.put(instance.id(), emission);
+            vertices.add(emission.vertices());
+            triangleLights.add(emission.powers());
+        }
+
+        return new EmissiveTriangles(vertices.toArray(), triangleLights.toArray(), byInstance, missingMeshes);
+    }
+
+    private static boolean isEmissive(MeshGeometry geometry) {
+        for (MeshGeometry.Material material : geometry.materials()) {
+            if (luminance(emission(material)) > 0.0) return true;
+        }
+        return false;
+    }
+
+    private static InstanceEmission instanceEmission(MeshGeometry geometry, double[] model) {
+        FloatArray vertices = new FloatArray();
+        DoubleArray triangleLights = new DoubleArray();
+        for (int group = 0; group < geometry.groupCount(); group++) {
+            double[] emission = emission(geometry.materials().get(group));
+            double luminance = luminance(emission);
+            if (!(luminance > 0.0)) continue;
+
+            float[] positions = geometry.positions();
+            int[] indices = geometry.indices();
+            for (int i = geometry.groupStarts()[group]; i < geometry.groupStarts()[group + 1]; i += 3) {
+                double[] p0 = transform(model, positions, indices[i]);
+                double[] p1 = transform(model, positions, indices[i + 1]);
+                double[] p2 = transform(model, positions, indices[i + 2]);
+
+                double area = 0.5 * length(cross(subtract(p1, p0), subtract(p2, p0)));
+                if (!(area > 0.0)) continue;
+
+                vertices.add(p0);
+                vertices.add(p1);
+                vertices.add(p2);
+                vertices.add(emission);
+                triangleLights.add(Math.PI * area * luminance);
+            }
+        }
+        return new InstanceEmission(geometry, model, vertices.toArray(), triangleLights.toArray());
+    }
+
+    private static double[] emission(MeshGeometry.Material material) {
+        double[] emission = new double[3];
+        for (int c = 0; c < 3; c++) emission[c] = material.emissiveColor()[c] * material.emissiveIntensity();
+        return emission;
+    }
+
+    private static byte[] encode(double[] powers, float[] emissiveTriangles) {
+        int count = powers.length;
+        double total = Arrays.stream(powers).sum();
+
+        // All-black scenes fall back to uniform selection
+        double[] pdf = new double[count];
+        for (int i = 0; i < count; i++) pdf[i] = total > 0.0 ? powers[i] / total : 1.0 / count;
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (count + ALIAS_STRIDE * count + emissiveTriangles.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        // CDF
+        double cumulative = 0.0;
+        for (int i = 0; i < count; i++) {
+            cumulative += pdf[i];
+            buffer.putFloat(i == count - 1 ? 1.0f : (float) cumulative);
+        }
+
+        // Alias table (Vose)
+        double[] threshold = new double[count];
+        int[] alias = new int[count];
+        double[] scaled = new double[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            scaled[i] = pdf[i] * count;
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int lower = small[--smallCount];
+            int upper = large[--largeCount];
+
+            threshold[lower] = scaled[lower];
+            alias[lower] = upper;
+
+            scaled[upper] = scaled[upper] + scaled[lower] - 1.0;
+            if (scaled[upper] < 1.0) small[smallCount++] = upper;
+            else large[largeCount++] = upper;
+        }
+        // Leftovers are 1 up to rounding error
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            threshold[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            threshold[i] = 1.0;
+            alias[i] = i;
+        }
+
+        for (int i = 0; i < count; i++) {
+            buffer.putFloat((float) threshold[i]);
+            buffer.putInt(alias[i]);
+            buffer.putFloat((float) pdf[i]);
+        }
+
+        for (float value : emissiveTriangles) buffer.putFloat(value);
+
+        return buffer.array();
+    }
+
+    // Bounding sphere of object and light positions (mesh extents are not known to the backend)
+    private static double sceneRadius(SceneAssets assets) {
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        boolean any = false;
+
+        for (SceneAssets.ObjectAsset object : assets.objects()) {
+            expand(min, max, object.position());
+            any = true;
+        }
+        for (LightAsset light : assets.lights()) {
+            if (light.type() == SceneAssets.LightType.DIRECTIONAL) continue;
+            expand(min, max, light.position());
+            any = true;
+        }
+
+        if (!any) return 1.0;
+        double dx = max[0] - min[0];
+        double dy = max[1] - min[1];
+        double dz = max[2] - min[2];
+        return Math.max(1.0, 0.5 * Math.sqrt(dx * dx + dy * dy + dz * dz));
+    }
+
+    private static void expand(double[] min, double[] max, double[] point) {
+        for (int axis = 0; axis < 3; axis++) {
+            min[axis] = Math.min(min[axis], point[axis]);
+            max[axis] = Math.max(max[axis], point[axis]);
+        }
+    }
+
+    private static double luminance(double[] color) {
+        return color[0] * LUMINANCE_WEIGHTS[0] + color[1] * LUMINANCE_WEIGHTS[1] + color[2] * LUMINANCE_WEIGHTS[2];
+    }
+
+    // Column-major model matrix times the mesh-space point
+    private static double[] transform(double[] model, float[] positions, int vertex) {
+        double x = positions[vertex * 3];
+        double y = positions[vertex * 3 + 1];
+        double z = positions[vertex * 3 + 2];
+        return new double[]{
+                model[0] * x + model[4] * y + model[8] * z + model[12],
+                model[1] * x + model[5] * y + model[9] * z + model[13],
+                model[2] * x + model[6] * y + model[10] * z + model[14]
+        };
+    }
+
+    private static double[] subtract(double[] a, double[] b) {
+        return new double[]{a[0] - b[0], a[1] - b[1], a[2] - b[2]};
+    }
+
+    private static double[] cross(double[] a, double[] b) {
+        return new double[]{
+                a[1] * b[2] - a[2] * b[1],
+                a[2] * b[0] - a[0] * b[2],
+                a[0] * b[1] - a[1] * b[0]
+        };
+    }
+
+    private static double length(double[] v) {
+        return Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+    }
+
+    // Growable f32 array for the emissive section
+    private static final class FloatArray {
+
+        private float[] values = new float[96];
+        private int size;
+
+        void add(double[] vector) {
+            ensureCapacity(vector.length);
+            for (double value : vector) values[size++] = (float) value;
+        }
+
+        void add(float[] vector) {
+            ensureCapacity(vector.length);
+            System.arraycopy(vector, 0, values, size, vector.length);
+            size += vector.length;
+        }
+
+        private void ensureCapacity(int more) {
+            if (size + more > values.length) values = Arrays.copyOf(values, Math.max(values.length * 2, size + more));
+        }
+
+        float[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    // Growable f64 array for the emissive triangle powers
+    private static final class DoubleArray {
+
+        private double[] values = new double[8];
+        private int size;
+
+        void add(double value) {
+            ensureCapacity(1);
+            values[size++] = value;
+        }
+
+        void add(double[] more) {
+            ensureCapacity(more.length);
+            System.arraycopy(more, 0, values, size, more.length);
+            size += more.length;
+        }
+
+        private void ensureCapacity(int more) {
+            if (size + more > values.length) values = Arrays.copyOf(values, Math.max(values.length * 2, size + more));
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
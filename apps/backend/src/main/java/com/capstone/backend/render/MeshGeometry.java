@@ -0,0 +1,350 @@
+package com.capstone.backend.render;
+
+import com.capstone.backend.render.WorldBufferPacker.Matrix4;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geometry of one mesh asset (public/assets/{meshName}.glb) as Mesh.Load in Structs.ts builds it
+ * Every triangle primitive in the default scene is baked with its node's world matrix and merged into one mesh
+ * (mergeGeometries with groups): primitive i is group i, with its own material.
+ *
+ * @param positions     x, y, z per vertex (f32, as uploaded)
+ * @param normals       x, y, z per vertex, transformed by the normal matrix and normalized like applyMatrix4;
+ *                      zero for primitives without NORMAL
+ * @param uvs           TEXCOORD_0 u, v per vertex; zero for primitives without float UVs (as Mesh.Serialize leaves them)
+ * @param indices       3 per triangle, into the merged vertices
+ * @param groupStarts   first index of every group, followed by indices.length
+ * @param materials     one per group
+ * @param textureBytes  images used by the materials (base color, ORM, emissive) as rgba8 with a full mip chain
+ */
+public record MeshGeometry(float[] positions, float[] normals, float[] uvs, int[] indices, int[] groupStarts,
+                           List<Material> materials, long textureBytes) {
+
+    /**
+     * MeshStandardMaterial parameters as GLTFLoader sets them (defaults for primitives without a material).
+     * albedo is the RGBA base color factor.
+     */
+    public record Material(double[] albedo, double[] emissiveColor, double emissiveIntensity,
+                           double metalness, double roughness, boolean transparent) {
+
+        static final Material DEFAULT = new Material(new double[]{1, 1, 1, 1}, new double[]{0, 0, 0}, 1.0, 1.0, 1.0, false);
+    }
+
+    private static final int GLB_MAGIC = 0x46546C67; // "glTF"
+    private static final int CHUNK_JSON = 0x4E4F534A;
+    private static final int CHUNK_BIN = 0x004E4942;
+
+    private static final int MODE_TRIANGLES = 4;
+    private static final int COMPONENT_FLOAT = 5126;
+
+    public int vertexCount() {
+        return positions.length / 3;
+    }
+
+    public int groupCount() {
+        return materials.size();
+    }
+
+    public static MeshGeometry parse(ObjectMapper objectMapper, byte[] glb) {
+        ByteBuffer data = ByteBuffer.wrap(glb).order(ByteOrder.LITTLE_ENDIAN);
+        if (glb.length < 20 || data.getInt(0) != GLB_MAGIC || data.getInt(16) != CHUNK_JSON) {
+            throw new IllegalArgumentException("Not a binary glTF file");
+        }
+
+        int jsonLength = data.getInt(12);
+        JsonNode gltf;
+        try {
+            gltf = objectMapper.readTree(new String(glb, 20, jsonLength, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid glTF JSON chunk", e);
+        }
+
+        int binStart = 20 + jsonLength;
+        ByteBuffer bin = ByteBuffer.allocate(0);
+        if (binStart + 8 <= glb.length && data.getInt(binStart + 4) == CHUNK_BIN) {
+            bin = data.slice(binStart + 8, Math.min(data.getInt(binStart), glb.length - binStart - 8))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        Reader reader = new Reader(gltf, bin);
+        JsonNode scenes = gltf.path("scenes");
+        JsonNode scene = scenes.path(gltf.path("scene").asInt(0));
+        for (JsonNode node : scene.path("nodes")) {
+            reader.visit(node.asInt(), Matrix4.identity());
+        }
+        return reader.result();
+    }
+
+    private static final class Reader {
+
+        private final JsonNode gltf;
+        private final ByteBuffer bin;
+
+        private final List<float[]> positions = new ArrayList<>();
+        private final List<float[]> normals = new ArrayList<>();
+        private final List<float[]> uvs = new ArrayList<>();
+        private final List<int[]> indices = new ArrayList<>();
+        private final List<Material> materials = new ArrayList<>();
+        private int vertexCount;
+        private int indexCount;
+        private final Set<Integer> images = new HashSet<>();
+
+        Reader(JsonNode gltf, ByteBuffer bin) {
+            this.gltf = gltf;
+            this.bin = bin;
+        }
+
+        void visit(int nodeIndex, double[] parent) {
+            JsonNode node = gltf.path("nodes").path(nodeIndex);
+            double[] world = Matrix4.multiply(parent, localMatrix(node));
+
+            if (node.has("mesh")) {
+                for (JsonNode primitive : gltf.path("meshes").path(node.get("mesh").asInt()).path("primitives")) {
+                    addPrimitive(primitive, world);
+                }
+            }
+            for (JsonNode child : node.path("children")) {
+                visit(child.asInt(), world);
+            }
+        }
+
+        MeshGeometry result() {
+            float[] mergedPositions = new float[vertexCount * 3];
+            float[] mergedNormals = new float[vertexCount * 3];
+            float[] mergedUvs = new float[vertexCount * 2];
+            int[] mergedIndices = new int[indexCount];
+            int[] groupStarts = new int[indices.size() + 1];
+
+            int vertexBase = 0;
+            int indexBase = 0;
+            for (int group = 0; group < indices.size(); group++) {
+                float[] groupPositions = positions.get(group);
+                int[] groupIndices = indices.get(group);
+
+                System.arraycopy(groupPositions, 0, mergedPositions, vertexBase * 3, groupPositions.length);
+                System.arraycopy(normals.get(group), 0, mergedNormals, vertexBase * 3, groupPositions.length);
+                System.arraycopy(uvs.get(group), 0, mergedUvs, vertexBase * 2, groupPositions.length / 3 * 2);
+                groupStarts[group] = indexBase;
+                for (int i = 0; i < groupIndices.length; i++) mergedIndices[indexBase + i] = vertexBase + groupIndices[i];
+
+                vertexBase += groupPositions.length / 3;
+                indexBase += groupIndices.length;
+            }
+            groupStarts[indices.size()] = indexBase;
+
+            long textureBytes = 0L;
+            for (int image : images) textureBytes += imageBytes(image);
+
+            return new MeshGeometry(mergedPositions, mergedNormals, mergedUvs, mergedIndices, groupStarts,
+                    List.copyOf(materials), textureBytes);
+        }
+
+        // glTF node transform: matrix (column-major) or T * R * S
+        private static double[] localMatrix(JsonNode node) {
+            JsonNode matrix = node.path("matrix");
+            if (matrix.isArray() && matrix.size() == 16) {
+                double[] m = new double[16];
+                for (int i = 0; i < 16; i++) m[i] = matrix.get(i).asDouble();
+                return m;
+            }
+
+            double[] translation = vector(node.path("translation"), new double[]{0, 0, 0});
+            double[] rotation = vector(node.path("rotation"), new double[]{0, 0, 0, 1});
+            double[] scale = vector(node.path("scale"), new double[]{1, 1, 1});
+            return Matrix4.multiply(Matrix4.translation(translation),
+                    Matrix4.multiply(Matrix4.fromQuat(rotation), Matrix4.scaling(scale)));
+        }
+
+        private static double[] vector(JsonNode node, double[] fallback) {
+            if (!node.isArray() || node.size() != fallback.length) return fallback;
+            double[] result = new double[fallback.length];
+            for (int i = 0; i < result.length; i++) result[i] = node.get(i).asDouble(fallback[i]);
+            return result;
+        }
+
+        private void addPrimitive(JsonNode primitive, double[] world) {
+            if (primitive.path("mode").asInt(MODE_TRIANGLES) != MODE_TRIANGLES) return;
+            JsonNode positionAccessor = accessor(primitive.path("attributes").path("POSITION"));
+            if (positionAccessor == null || positionAccessor.path("componentType").asInt() != COMPONENT_FLOAT) return;
+
+            int vertices = positionAccessor.path("count").asInt();
+            positions.add(readPositions(positionAccessor, world));
+            normals.add(readNormals(accessor(primitive.path("attributes").path("NORMAL")), vertices, world));
+            uvs.add(readFloats(accessor(primitive.path("attributes").path("TEXCOORD_0")), vertices, 2));
+            int[] primitiveIndices = readIndices(accessor(primitive.path("indices")), vertices);
+            indices.add(primitiveIndices);
+            materials.add(material(primitive.path("material")));
+
+            vertexCount += vertices;
+            indexCount += primitiveIndices.length;
+        }
+
+        private float[] readPositions(JsonNode accessor, double[] world) {
+            float[] local = readFloats(accessor, accessor.path("count").asInt(), 3);
+            float[] result = new float[local.length];
+            for (int i = 0; i < local.length; i += 3) {
+                double x = local[i];
+                double y = local[i + 1];
+                double z = local[i + 2];
+                result[i] = (float) (world[0] * x + world[4] * y + world[8] * z + world[12]);
+                result[i + 1] = (float) (world[1] * x + world[5] * y + world[9] * z + world[13]);
+                result[i + 2] = (float) (world[2] * x + world[6] * y + world[10] * z + world[14]);
+            }
+            return result;
+        }
+
+        // BufferGeometry.applyMatrix4: normal matrix (inverse transpose of the upper 3x3), then normalize
+        private float[] readNormals(JsonNode accessor, int vertexCount, double[] world) {
+            float[] result = readFloats(accessor, vertexCount, 3);
+            double[] inverse = Matrix4.invert(world);
+            for (int i = 0; i < result.length; i += 3) {
+                double x = result[i];
+                double y = result[i + 1];
+                double z = result[i + 2];
+                double nx = inverse[0] * x + inverse[1] * y + inverse[2] * z;
+                double ny = inverse[4] * x + inverse[5] * y + inverse[6] * z;
+                double nz = inverse[8] * x + inverse[9] * y + inverse[10] * z;
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length <= 0.0) continue;
+                result[i] = (float) (nx / length);
+                result[i + 1] = (float) (ny / length);
+                result[i + 2] = (float) (nz / length);
+            }
+            return result;
+        }
+
+        // Float vertex attribute with the given component count; zeros when absent or not FLOAT
+        private float[] readFloats(JsonNode accessor, int vertexCount, int components) {
+            float[] result = new float[vertexCount * components];
+            if (accessor == null || accessor.path("componentType").asInt() != COMPONENT_FLOAT) return result;
+
+            JsonNode view = gltf.path("bufferViews").path(accessor.path("bufferView").asInt(-1));
+            if (view.isMissingNode()) return result;
+            int offset = view.path("byteOffset").asInt(0) + accessor.path("byteOffset").asInt(0);
+            int stride = view.path("byteStride").asInt(components * Float.BYTES);
+
+            int count = Math.min(vertexCount, accessor.path("count").asInt());
+            for (int i = 0; i < count; i++) {
+                int at = offset + i * stride;
+                for (int c = 0; c < components; c++) result[i * components + c] = bin.getFloat(at + c * Float.BYTES);
+            }
+            return result;
+        }
+
+        // Non-indexed primitives use consecutive vertices
+        private int[] readIndices(JsonNode accessor, int vertexCount) {
+            if (accessor == null) {
+                int[] result = new int[vertexCount - vertexCount % 3];
+                for (int i = 0; i < result.length; i++) result[i] = i;
+                return result;
+            }
+
+            int count = accessor.path("count").asInt();
+            int componentType = accessor.path("componentType").asInt();
+            int size = componentType == 5121 ? 1 : componentType == 5123 ? 2 : 4;
+
+            JsonNode view = gltf.path("bufferViews").path(accessor.path("bufferView").asInt(-1));
+            int offset = view.path("byteOffset").asInt(0) + accessor.path("byteOffset").asInt(0);
+            int stride = view.path("byteStride").asInt(size);
+
+            int[] result = new int[count - count % 3];
+            for (int i = 0; i < result.length; i++) {
+                int at = offset + i * stride;
+                int index = switch (size) {
+                    case 1 -> Byte.toUnsignedInt(bin.get(at));
+                    case 2 -> Short.toUnsignedInt(bin.getShort(at));
+                    default -> bin.getInt(at);
+                };
+                // Out-of-range indices would break the bounds; clamp them like a degenerate triangle
+                result[i] = index >= 0 && index < vertexCount ? index : 0;
+            }
+            return result;
+        }
+
+        private JsonNode accessor(JsonNode index) {
+            if (!index.canConvertToInt()) return null;
+            JsonNode accessor = gltf.path("accessors").path(index.asInt());
+            return accessor.isMissingNode() ? null : accessor;
+        }
+
+        // GLTFLoader: baseColorFactor, emissiveFactor, KHR_materials_emissive_strength, metallic / roughness factors,
+        // alphaMode BLEND -> transparent
+        private Material material(JsonNode materialIndex) {
+            if (!materialIndex.canConvertToInt()) return Material.DEFAULT;
+            JsonNode material = gltf.path("materials").path(materialIndex.asInt());
+            if (material.isMissingNode()) return Material.DEFAULT;
+            collectImages(material);
+
+            JsonNode pbr = material.path("pbrMetallicRoughness");
+            return new Material(
+                    vector(pbr.path("baseColorFactor"), new double[]{1, 1, 1, 1}),
+                    vector(material.path("emissiveFactor"), new double[]{0, 0, 0}),
+                    material.path("extensions").path("KHR_materials_emissive_strength").path("emissiveStrength").asDouble(1.0),
+                    pbr.path("metallicFactor").asDouble(1.0),
+                    pbr.path("roughnessFactor").asDouble(1.0),
+                    "BLEND".equals(material.path("alphaMode").asText()));
+        }
+
+        // Material in Structs.ts: map, (aoMap || metalnessMap || roughnessMap), emissiveMap
+        private void collectImages(JsonNode material) {
+            addTextureImage(material.path("pbrMetallicRoughness").path("baseColorTexture"));
+            JsonNode occlusion = material.path("occlusionTexture");
+            addTextureImage(occlusion.has("index") ? occlusion : material.path("pbrMetallicRoughness").path("metallicRoughnessTexture"));
+            addTextureImage(material.path("emissiveTexture"));
+        }
+
+        private void addTextureImage(JsonNode textureInfo) {
+            if (!textureInfo.has("index")) return;
+            JsonNode source = gltf.path("textures").path(textureInfo.get("index").asInt()).path("source");
+            if (source.canConvertToInt()) images.add(source.asInt());
+        }
+
+        // Dimensions from the PNG / JPEG header in the BIN chunk; external or other formats count as 0
+        private long imageBytes(int imageIndex) {
+            JsonNode view = gltf.path("bufferViews").path(gltf.path("images").path(imageIndex).path("bufferView").asInt(-1));
+            if (view.isMissingNode()) return 0L;
+
+            int offset = view.path("byteOffset").asInt(0);
+            int length = Math.min(view.path("byteLength").asInt(0), bin.capacity() - offset);
+            if (offset < 0 || length <= 0) return 0L;
+
+            int[] size = imageSize(offset, length);
+            if (size == null) return 0L;
+
+            // rgba8 with mip chain: 4 bytes per texel * 4/3
+            return (long) size[0] * size[1] * 16 / 3;
+        }
+
+        private int[] imageSize(int offset, int length) {
+            ByteBuffer image = bin.slice(offset, length).order(ByteOrder.BIG_ENDIAN);
+
+            if (length >= 24 && image.getInt(0) == 0x89504E47) {
+                return new int[]{image.getInt(16), image.getInt(20)};
+            }
+
+            if (length >= 4 && Short.toUnsignedInt(image.getShort(0)) == 0xFFD8) {
+                int at = 2;
+                while (at + 9 <= length) {
+                    if (Byte.toUnsignedInt(image.get(at)) != 0xFF) return null;
+                    int marker = Byte.toUnsignedInt(image.get(at + 1));
+                    boolean startOfFrame = marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+                    if (startOfFrame) {
+                        return new int[]{Short.toUnsignedInt(image.getShort(at + 7)), Short.toUnsignedInt(image.getShort(at + 5))};
+                    }
+                    at += 2 + Short.toUnsignedInt(image.getShort(at + 2));
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.capstone.backend.render;
+
+/**
+ * GPU-side size and trace cost of one mesh asset (public/assets/{meshName}.glb)
+ * Follows Mesh.Serialize in Structs.ts over the MeshGeometry: one material and one BLAS root (SAH, maxLeafTris 10)
+ * per primitive.
+ *
+ * @param subMeshCount   primitives = materials = BLAS roots
+ * @param blasSahCost    expected BLAS work of a ray entering the mesh bounds (all roots are tested)
+ * @param bounds         min / max after node transforms (6 values)
+ * @param textureBytes   images used by the materials (base color, ORM, emissive) as rgba8 with a full mip chain
+ */
+public record MeshStats(int vertexCount, int indexCount, int subMeshCount,
+                        int blasNodeCount, double blasSahCost, double[] bounds, long textureBytes) {
+
+    public static final int BLAS_MAX_LEAF_TRIANGLES = 10;
+
+    public int triangleCount() {
+        return indexCount / 3;
+    }
+
+    public static MeshStats of(MeshGeometry geometry) {
+        int groups = geometry.groupCount();
+        if (groups == 0) {
+            return new MeshStats(0, 0, 0, 0, 0.0, new double[6], 0L);
+        }
+
+        double[] bounds = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+        int blasNodeCount = 0;
+        // SA(root) * SAH cost per BLAS root, normalized by the mesh bounds at the end
+        double weightedRootCost = 0.0;
+
+        for (int group = 0; group < groups; group++) {
+            SahBvh.Result blas = SahBvh.build(triangleBoxes(geometry, group), null, BLAS_MAX_LEAF_TRIANGLES);
+            blasNodeCount += blas.nodeCount();
+            weightedRootCost += SahBvh.surfaceArea(blas.bounds()) * blas.sahCost();
+            if (blas.leafCount() > 0) {
+                for (int axis = 0; axis < 3; axis++) {
+                    bounds[axis] = Math.min(bounds[axis], blas.bounds()[axis]);
+                    bounds[3 + axis] = Math.max(bounds[3 + axis], blas.bounds()[3 + axis]);
+                }
+            }
+        }
+
+        double area = SahBvh.surfaceArea(bounds);
+        double blasSahCost = area > 0.0 ? weightedRootCost / area : weightedRootCost;
+        return new MeshStats(geometry.vertexCount(), geometry.indices().length, groups,
+                blasNodeCount, blasSahCost, bounds, geometry.textureBytes());
+    }
+
+    /**
+     * Bounds (min xyz, max xyz) of every triangle of one group, in index order.
+     */
+    static double[] triangleBoxes(MeshGeometry geometry, int group) {
+        float[] positions = geometry.positions();
+        int[] indices = geometry.indices();
+        int first = geometry.groupStarts()[group] / 3;
+        int triangles = (geometry.groupStarts()[group + 1] - geometry.groupStarts()[group]) / 3;
+
+        double[] boxes = new double[triangles * 6];
+        for (int t = 0; t < triangles; t++) {
+            int base = (first + t) * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                double a = positions[indices[base] * 3 + axis];
+                double b = positions[indices[base + 1] * 3 + axis];
+                double c = positions[indices[base + 2] * 3 + axis];
+                boxes[t * 6 + axis] = Math.min(a, Math.min(b, c));
+                boxes[t * 6 + 3 + axis] = Math.max(a, Math.max(b, c));
+            }
+        }
+        return boxes;
+    }
+}
@@ -0,0 +1,330 @@
+package com.capstone.backend.render;
+
+import java.util.Arrays;
+
+/**
+ * Binned SAH BVH builder
+ * Mirrors what the client builds: three-mesh-bvh with the SAH strategy for BLAS (maxLeafTris 10),
+ * and a binary tree over instance bounds for the TLAS. build() only measures the tree (node count and SAH cost),
+ * buildTree() also flattens it in the three-mesh-bvh node layout the shaders traverse.
+ *
+ * SAH cost = sum over inner nodes of SA(node) / SA(root) * TRAVERSAL_COST
+ *          + sum over leaves of SA(leaf) / SA(root) * (sum of primitive costs)
+ * i.e. the expected work of a ray that enters the root bounds.
+ */
+public final class SahBvh {
+
+    /** Same relative costs as three-mesh-bvh (TRAVERSAL_COST, TRIANGLE_INTERSECT_COST) */
+    public static final double TRAVERSAL_COST = 1.0;
+    public static final double TRIANGLE_INTERSECT_COST = 1.25;
+
+    /** three-mesh-bvh node: bounds f32x6 + offset/count (or right child/split axis) u32x2 */
+    public static final int NODE_BYTES = 32;
+    public static final int NODE_WORDS = NODE_BYTES / 4;
+
+    /** Leaf marker in the upper 16 bits of the count word (three-mesh-bvh IS_LEAF, the shaders' Count & 0xffff0000) */
+    public static final int LEAF_FLAG = 0xFFFF0000;
+    private static final int MAX_LEAF_PRIMITIVES = 0xFFFF;
+
+    private static final int BIN_COUNT = 32;
+
+    /**
+     * @param bounds  min / max of the whole tree (6 values), or all zero for an empty tree
+     * @param sahCost expected cost of a ray entering the root bounds
+     */
+    public record Result(int nodeCount, int leafCount, double sahCost, double[] bounds) {}
+
+    /**
+     * Depth-first flattened tree: the left child follows its parent, the right child is at word offset nodes[6]
+     * Inner nodes: bounds, right child offset (words from the root), split axis
+     * Leaves: bounds, first primitive (primitiveBase + position in primitiveOrder), count | LEAF_FLAG
+     *
+     * @param nodes          NODE_WORDS per node; bounds are float bits rounded outwards
+     * @param primitiveOrder input primitive index at every leaf position
+     */
+    public record Tree(Result result, int[] nodes, int[] primitiveOrder) {}
+
+    private SahBvh() {
+    }
+
+    /**
+     * @param boxes       primitive bounds, 6 values per primitive (min xyz, max xyz)
+     * @param costs       intersection cost per primitive, or null for TRIANGLE_INTERSECT_COST each
+     * @param maxLeafSize nodes with at most this many primitives become leaves; larger ones split while SAH favours it
+     */
+    public static Result build(double[] boxes, double[] costs, int maxLeafSize) {
+        return buildTree(boxes, costs, maxLeafSize, 0).result();
+    }
+
+    /**
+     * Same tree as build(), flattened. An empty input gives one empty leaf so the root can always be read.
+     *
+     * @param primitiveBase added to the first-primitive word of every leaf (e.g. the group's first triangle)
+     */
+    public static Tree buildTree(double[] boxes, double[] costs, int maxLeafSize, int primitiveBase) {
+        int count = boxes.length / 6;
+        if (count == 0) {
+            int[] emptyLeaf = new int[NODE_WORDS];
+            emptyLeaf[6] = primitiveBase;
+            emptyLeaf[7] = LEAF_FLAG;
+            return new Tree(new Result(0, 0, 0.0, new double[6]), emptyLeaf, new int[0]);
+        }
+
+        int[] primitives = new int[count];
+        double[] centroids = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            primitives[i] = i;
+            for (int axis = 0; axis < 3; axis++) {
+                centroids[i * 3 + axis] = (boxes[i * 6 + axis] + boxes[i * 6 + 3 + axis]) * 0.5;
+            }
+        }
+
+        Builder builder = new Builder(boxes, costs, centroids, primitives, Math.max(1, maxLeafSize));
+        double[] rootBounds = builder.bounds(0, count);
+        double rootArea = surfaceArea(rootBounds);
+
+        // Explicit stack of {start, end, parent waiting for its right child or -1}: degenerate inputs can produce
+        // very deep trees. The right half is pushed first so the left child is emitted right after its parent.
+        int[] stack = new int[3 * 64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count;
+        stack[top++] = -1;
+
+        int[] nodes = new int[NODE_WORDS * (2 * ((count + builder.maxLeafSize - 1) / builder.maxLeafSize) + 1)];
+        int nodeCount = 0;
+        int leafCount = 0;
+        double weightedCost = 0.0;
+
+        while (top > 0) {
+            int parent = stack[--top];
+            int end = stack[--top];
+            int start = stack[--top];
+            double[] nodeBounds = builder.bounds(start, end);
+            double area = surfaceArea(nodeBounds);
+
+            if (NODE_WORDS * (nodeCount + 1) > nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int node = nodeCount++;
+            int at = node * NODE_WORDS;
+            putBounds(nodes, at, nodeBounds);
+            if (parent >= 0) nodes[parent * NODE_WORDS + 6] = at;
+
+            int split = builder.split(start, end, nodeBounds);
+            if (split < 0) {
+                leafCount++;
+                weightedCost += area * builder.primitiveCost(start, end);
+                nodes[at + 6] = primitiveBase + start;
+                nodes[at + 7] = LEAF_FLAG | (end - start);
+                continue;
+            }
+
+            weightedCost += area * TRAVERSAL_COST;
+            nodes[at + 7] = builder.splitAxis;
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = split;
+            stack[top++] = end;
+            stack[top++] = node;
+            stack[top++] = start;
+            stack[top++] = split;
+            stack[top++] = -1;
+        }
+
+        double sahCost = rootArea > 0.0 ? weightedCost / rootArea : builder.primitiveCost(0, count) + TRAVERSAL_COST;
+        Result result = new Result(nodeCount, leafCount, sahCost, rootBounds);
+        return new Tree(result, Arrays.copyOf(nodes, nodeCount * NODE_WORDS), builder.primitives);
+    }
+
+    // f32 bounds that still contain the double ones
+    private static void putBounds(int[] nodes, int at, double[] bounds) {
+        for (int axis = 0; axis < 3; axis++) {
+            float min = (float) bounds[axis];
+            float max = (float) bounds[3 + axis];
+            if (min > bounds[axis]) min = Math.nextDown(min);
+            if (max < bounds[3 + axis]) max = Math.nextUp(max);
+            nodes[at + axis] = Float.floatToRawIntBits(min);
+            nodes[at + 3 + axis] = Float.floatToRawIntBits(max);
+        }
+    }
+
+    public static double surfaceArea(double[] bounds) {
+        double dx = Math.max(0.0, bounds[3] - bounds[0]);
+        double dy = Math.max(0.0, bounds[4] - bounds[1]);
+        double dz = Math.max(0.0, bounds[5] - bounds[2]);
+        return 2.0 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private static final class Builder {
+
+        private final double[] boxes;
+        private final double[] costs;
+        private final double[] centroids;
+        private final int[] primitives;
+        private final int maxLeafSize;
+        private int splitAxis;
+
+        private final int[] binCounts = new int[BIN_COUNT];
+        private final double[] binCosts = new double[BIN_COUNT];
+        private final double[] binBounds = new double[BIN_COUNT * 6];
+        private final double[] rightAreas = new double[BIN_COUNT];
+        private final double[] rightCosts = new double[BIN_COUNT];
+
+        Builder(double[] boxes, double[] costs, double[] centroids, int[] primitives, int maxLeafSize) {
+            this.boxes = boxes;
+            this.costs = costs;
+            this.centroids = centroids;
+            this.primitives = primitives;
+            this.maxLeafSize = maxLeafSize;
+        }
+
+        double[] bounds(int start, int end) {
+            double[] bounds = emptyBounds();
+            for (int i = start; i < end; i++) {
+                int p = primitives[i] * 6;
+                for (int axis = 0; axis < 3; axis++) {
+                    bounds[axis] = Math.min(bounds[axis], boxes[p + axis]);
+                    bounds[3 + axis] = Math.max(bounds[3 + axis], boxes[p + 3 + axis]);
+                }
+            }
+            return bounds;
+        }
+
+        double primitiveCost(int start, int end) {
+            if (costs == null) return (end - start) * TRIANGLE_INTERSECT_COST;
+            double sum = 0.0;
+            for (int i = start; i < end; i++) sum += costs[primitives[i]];
+            return sum;
+        }
+
+        /**
+         * Partitions [start, end) and returns the split index, or -1 to make a leaf.
+         */
+        int split(int start, int end, double[] nodeBounds) {
+            int count = end - start;
+            if (count <= maxLeafSize) return -1;
+
+            double[] centroidBounds = emptyBounds();
+            for (int i = start; i < end; i++) {
+                int c = primitives[i] * 3;
+                for (int axis = 0; axis < 3; axis++) {
+                    centroidBounds[axis] = Math.min(centroidBounds[axis], centroids[c + axis]);
+                    centroidBounds[3 + axis] = Math.max(centroidBounds[3 + axis], centroids[c + axis]);
+                }
+            }
+
+            double leafCost = primitiveCost(start, end);
+            double nodeArea = surfaceArea(nodeBounds);
+
+            int bestAxis = -1;
+            int bestBin = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+
+            for (int axis = 0; axis < 3; axis++) {
+                double min = centroidBounds[axis];
+                double extent = centroidBounds[3 + axis] - min;
+                if (extent <= 0.0) continue;
+
+                fillBins(start, end, axis, min, extent);
+
+                // Sweep from the right, then from the left evaluating each split plane
+                double[] accumulated = emptyBounds();
+                double accumulatedCost = 0.0;
+                for (int bin = BIN_COUNT - 1; bin > 0; bin--) {
+                    if (binCounts[bin] > 0) {
+                        union(accumulated, binBounds, bin * 6);
+                        accumulatedCost += binCosts[bin];
+                    }
+                    rightAreas[bin] = surfaceArea(accumulated);
+                    rightCosts[bin] = accumulatedCost;
+                }
+
+                accumulated = emptyBounds();
+                accumulatedCost = 0.0;
+                int leftCount = 0;
+                for (int bin = 0; bin < BIN_COUNT - 1; bin++) {
+                    if (binCounts[bin] > 0) {
+                        union(accumulated, binBounds, bin * 6);
+                        accumulatedCost += binCosts[bin];
+                        leftCount += binCounts[bin];
+                    }
+                    if (leftCount == 0 || leftCount == count) continue;
+
+                    double cost = TRAVERSAL_COST
+                            + (surfaceArea(accumulated) * accumulatedCost + rightAreas[bin + 1] * rightCosts[bin + 1]) / nodeArea;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestBin = bin;
+                    }
+                }
+            }
+
+            // Like three-mesh-bvh: no split beats intersecting everything (or all centroids coincide).
+            // A leaf can only count 16 bits of primitives, so larger ones are halved in input order instead.
+            if (bestAxis < 0 || !(bestCost < leafCost)) {
+                if (count <= MAX_LEAF_PRIMITIVES) return -1;
+                splitAxis = 0;
+                return start + count / 2;
+            }
+            splitAxis = bestAxis;
+
+            double min = centroidBounds[bestAxis];
+            double extent = centroidBounds[3 + bestAxis] - min;
+            int left = start;
+            int right = end - 1;
+            while (left <= right) {
+                if (binOf(primitives[left], bestAxis, min, extent) <= bestBin) {
+                    left++;
+                } else {
+                    int swap = primitives[left];
+                    primitives[left] = primitives[right];
+                    primitives[right] = swap;
+                    right--;
+                }
+            }
+            return left;
+        }
+
+        private void fillBins(int start, int end, int axis, double min, double extent) {
+            Arrays.fill(binCounts, 0);
+            Arrays.fill(binCosts, 0.0);
+            for (int bin = 0; bin < BIN_COUNT; bin++) {
+                System.arraycopy(emptyBounds(), 0, binBounds, bin * 6, 6);
+            }
+
+            for (int i = start; i < end; i++) {
+                int primitive = primitives[i];
+                int bin = binOf(primitive, axis, min, extent);
+                binCounts[bin]++;
+                binCosts[bin] += costs == null ? TRIANGLE_INTERSECT_COST : costs[primitive];
+                union(binBounds, bin * 6, boxes, primitive * 6);
+            }
+        }
+
+        private int binOf(int primitive, int axis, double min, double extent) {
+            int bin = (int) ((centroids[primitive * 3 + axis] - min) / extent * BIN_COUNT);
+            return Math.min(BIN_COUNT - 1, Math.max(0, bin));
+        }
+    }
+
+    private static double[] emptyBounds() {
+        return new double[]{
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+    }
+
+    private static void union(double[] target, double[] source, int sourceOffset) {
+        union(target, 0, source, sourceOffset);
+    }
+
+    private static void union(double[] target, int targetOffset, double[] source, int sourceOffset) {
+        for (int axis = 0; axis < 3; axis++) {
+            target[targetOffset + axis] = Math.min(target[targetOffset + axis], source[sourceOffset + axis]);
+            target[targetOffset + 3 + axis] = Math.max(target[targetOffset + 3 + axis], source[sourceOffset + 3 + axis]);
+        }
+    }
+}
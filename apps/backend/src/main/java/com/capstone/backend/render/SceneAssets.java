@@ -0,0 +1,98 @@
+package com.capstone.backend.render;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed Scene assets (SceneAsset[] in the frontend's Structs.ts)
+ * Follows World.LoadFromScene: assets keep their document order and incomplete assets are skipped,
+ * so light / instance indices match the ones the client uploads to the GPU.
+ */
+public record SceneAssets(List<ObjectAsset> objects, List<LightAsset> lights) {
+
+    public enum LightType {
+        DIRECTIONAL("directional-light", 0),
+        POINT("point-light", 1),
+        RECT("rect-light", 2);
+
+        private final String assetType;
+        private final int gpuCode; // Light.LightType in the WGSL light buffer
+
+        LightType(String assetType, int gpuCode) {
+            this.assetType = assetType;
+            this.gpuCode = gpuCode;
+        }
+
+        public int gpuCode() {
+            return gpuCode;
+        }
+
+        static LightType fromAssetType(String assetType) {
+            for (LightType type : values()) {
+                if (type.assetType.equals(assetType)) return type;
+            }
+            return null;
+        }
+    }
+
+    public record ObjectAsset(String id, String meshName, double[] position, double[] rotationDegrees, double[] scale) {}
+
+    public record LightAsset(String id, LightType type, JsonNode params,
+                             double[] position, double[] direction, double[] color,
+                             double[] u, double[] v, double intensity) {}
+
+    public static SceneAssets parse(ObjectMapper objectMapper, String assetsJson) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(assetsJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Scene assets are not valid JSON", e);
+        }
+
+        List<ObjectAsset> objects = new ArrayList<>();
+        List<LightAsset> lights = new ArrayList<>();
+
+        for (JsonNode asset : root) {
+            String id = asset.path("id").asText();
+            String type = asset.path("type").asText();
+
+            if ("object".equals(type)) {
+                JsonNode transform = asset.get("transform");
+                if (!asset.hasNonNull("meshName") || transform == null) continue;
+
+                objects.add(new ObjectAsset(id, asset.get("meshName").asText(),
+                        vector(transform.get("position"), 0.0),
+                        vector(transform.get("rotation"), 0.0),
+                        vector(transform.get("scale"), 1.0)));
+                continue;
+            }
+
+            LightType lightType = LightType.fromAssetType(type);
+            // A null lightParams is skipped like a missing one, as the client does
+            if (lightType == null || !asset.hasNonNull("lightParams")) continue;
+            JsonNode params = asset.get("lightParams");
+
+            lights.add(new LightAsset(id, lightType, params,
+                    vector(params.get("position"), 0.0),
+                    vector(params.get("direction"), 0.0),
+                    vector(params.get("color"), 0.0),
+                    vector(params.get("u"), 0.0),
+                    vector(params.get("v"), 0.0),
+                    params.path("intensity").asDouble(0.0)));
+        }
+
+        return new SceneAssets(objects, lights);
+    }
+
+    private static double[] vector(JsonNode node, double fallback) {
+        double[] result = {fallback, fallback, fallback};
+        if (node != null && node.isArray()) {
+            for (int i = 0; i < 3 && i < node.size(); i++) result[i] = node.get(i).asDouble(fallback);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package com.capstone.backend.render;
+
+import com.capstone.backend.render.SceneAssets.LightAsset;
+import com.capstone.backend.render.SceneAssets.LightType;
+import com.capstone.backend.render.SceneAssets.ObjectAsset;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Scene-level GPU size and trace cost, from the scene assets and the statistics of the meshes they use
+ * Byte sizes follow Renderer.ts: meshes are uploaded once (World.PackWorldData), instances and lights per asset.
+ * The client has no TLAS yet; it is estimated as a binned SAH tree over the instance bounds with one instance per leaf
+ * when SAH allows, each leaf costing the BLAS of its mesh.
+ */
+public final class SceneCostEstimator {
+
+    public static final int VERTEX_BYTES = 4 * 8;
+    public static final int INDEX_BYTES = 4;
+    public static final int MATERIAL_BYTES = 4 * 15;
+    public static final int MESH_DESCRIPTOR_BYTES = 4 * 6;
+    public static final int SUB_BLAS_ROOT_BYTES = 4;
+    public static final int INSTANCE_BYTES = 4 * WorldBufferPacker.STRIDE_INSTANCE;
+    public static final int LIGHT_BYTES = 4 * WorldBufferPacker.STRIDE_LIGHT;
+    public static final int LIGHT_CDF_BYTES = 4;
+
+    /**
+     * @param meshes         statistics of every mesh that was found, in first-use order
+     * @param missingMeshes  mesh names without an asset; their instances are left out of everything else
+     * @param tlas           TLAS over the instances; its SAH cost includes the BLAS of every leaf
+     */
+    public record Estimate(int instanceCount, Map<String, MeshStats> meshes, List<String> missingMeshes,
+                           long triangleCount, Map<LightType, Integer> lightCounts, SahBvh.Result tlas) {
+
+        /** TLAS + BLAS cost of a ray entering the scene bounds */
+        public double sahCost() {
+            return tlas.sahCost();
+        }
+
+        public long uniqueTriangleCount() {
+            return meshes.values().stream().mapToLong(MeshStats::triangleCount).sum();
+        }
+
+        public int blasNodeCount() {
+            return meshes.values().stream().mapToInt(MeshStats::blasNodeCount).sum();
+        }
+
+        public double maxBlasSahCost() {
+            return meshes.values().stream().mapToDouble(MeshStats::blasSahCost).max().orElse(0.0);
+        }
+
+        public long vertexBytes() {
+            return meshes.values().stream().mapToLong(mesh -> (long) mesh.vertexCount() * VERTEX_BYTES).sum();
+        }
+
+        public long indexBytes() {
+            return meshes.values().stream().mapToLong(mesh -> (long) mesh.indexCount() * INDEX_BYTES).sum();
+        }
+
+        public long subBlasRootBytes() {
+            return meshes.values().stream().mapToLong(mesh -> (long) mesh.subMeshCount() * SUB_BLAS_ROOT_BYTES).sum();
+        }
+
+        public long blasBytes() {
+            return (long) blasNodeCount() * SahBvh.NODE_BYTES;
+        }
+
+        public long tlasBytes() {
+            return (long) tlas.nodeCount() * SahBvh.NODE_BYTES;
+        }
+
+        public long materialBytes() {
+            return meshes.values().stream().mapToLong(mesh -> (long) mesh.subMeshCount() * MATERIAL_BYTES).sum();
+        }
+
+        public long meshDescriptorBytes() {
+            return (long) meshes.size() * MESH_DESCRIPTOR_BYTES;
+        }
+
+        public long textureBytes() {
+            return meshes.values().stream().mapToLong(MeshStats::textureBytes).sum();
+        }
+
+        public long instanceBytes() {
+            return (long) instanceCount * INSTANCE_BYTES;
+        }
+
+        public long lightBytes() {
+            int lights = lightCounts.values().stream().mapToInt(Integer::intValue).sum();
+            return (long) lights * (LIGHT_BYTES + LIGHT_CDF_BYTES);
+        }
+    }
+
+    private SceneCostEstimator() {
+    }
+
+    public static Estimate estimate(SceneAssets assets, Function<String, Optional<MeshStats>> meshStats) {
+        Map<String, MeshStats> meshes = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        List<ObjectAsset> instances = new ArrayList<>();
+
+        for (ObjectAsset object : assets.objects()) {
+            if (missing.contains(object.meshName())) continue;
+
+            MeshStats mesh = meshes.get(object.meshName());
+            if (mesh == null) {
+                Optional<MeshStats> found = meshStats.apply(object.meshName());
+                if (found.isEmpty()) {
+                    missing.add(object.meshName());
+                    continue;
+                }
+                mesh = found.get();
+                meshes.put(object.meshName(), mesh);
+            }
+            instances.add(object);
+        }
+
+        long triangleCount = 0L;
+        double[] boxes = new double[instances.size() * 6];
+        double[] costs = new double[instances.size()];
+        for (int i = 0; i < instances.size(); i++) {
+            ObjectAsset instance = instances.get(i);
+            MeshStats mesh = meshes.get(instance.meshName());
+
+            triangleCount += mesh.triangleCount();
+            System.arraycopy(worldBounds(WorldBufferPacker.modelMatrix(instance), mesh.bounds()), 0, boxes, i * 6, 6);
+            // Entering an instance: transform the ray, then traverse its BLAS
+            costs[i] = SahBvh.TRAVERSAL_COST + mesh.blasSahCost();
+        }
+
+        SahBvh.Result tlas = SahBvh.build(boxes, costs, 1);
+
+        Map<LightType, Integer> lightCounts = new EnumMap<>(LightType.class);
+        for (LightType type : LightType.values()) lightCounts.put(type, 0);
+        for (LightAsset light : assets.lights()) lightCounts.merge(light.type(), 1, Integer::sum);
+
+        return new Estimate(instances.size(), meshes, List.copyOf(missing), triangleCount, lightCounts, tlas);
+    }
+
+    // Bounds of the 8 transformed corners
+    static double[] worldBounds(double[] model, double[] local) {
+        double[] bounds = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+        for (int corner = 0; corner < 8; corner++) {
+            double x = (corner & 1) == 0 ? local[0] : local[3];
+            double y = (corner & 2) == 0 ? local[1] : local[4];
+            double z = (corner & 4) == 0 ? local[2] : local[5];
+            for (int axis = 0; axis < 3; axis++) {
+                double value = model[axis] * x + model[4 + axis] * y + model[8 + axis] * z + model[12 + axis];
+                bounds[axis] = Math.min(bounds[axis], value);
+                bounds[3 + axis] = Math.max(bounds[3 + axis], value);
+            }
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,42 @@
+package com.capstone.backend.render;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache holding one derived value per scene, tagged with the scene version it was built from.
+ * Callers compare the tag with Scene.currentVersion; a stale entry is still returned so that
+ * the next build can reuse unchanged parts of it.
+ */
+public class SceneVersionCache<V> {
+
+    public record Entry<V>(int version, V value) {}
+
+    private final Map<Long, Entry<V>> entries;
+
+    public SceneVersionCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Optional<Entry<V>> get(Long sceneId) {
+        return Optional.ofNullable(entries.get(sceneId));
+    }
+
+    public synchronized void put(Long sceneId, int version, V value) {
+        Entry<V> current = entries.get(sceneId);
+        // Never replace a newer build with an older one finishing late
+        if (current == null || current.version() <= version) {
+            entries.put(sceneId, new Entry<>(version, value));
+        }
+    }
+
+    public synchronized void evict(Long sceneId) {
+        entries.remove(sceneId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.capstone.backend.render;
+
+/**
+ * GPU arrays of one mesh asset, word for word what Mesh.Serialize in Structs.ts uploads (u32 words, floats as bits)
+ * Every group gets its own BLAS (SAH, maxLeafTris 10) and its triangles are reordered in the index array to
+ * the leaf order, like three-mesh-bvh's computeBoundsTree does in place. Leaves address triangles from the start
+ * of the whole index array.
+ *
+ * @param vertices     STRIDE_VERTEX words per vertex: position, normal, uv
+ * @param indices      3 per triangle, in BLAS leaf order
+ * @param blas         every group's nodes (SahBvh.NODE_WORDS each), concatenated
+ * @param subBlasRoots word offset of every group's root in blas (ResourceManager.MergeArrays offsets)
+ * @param materials    STRIDE_MATERIAL words per group
+ */
+public record SerializedMesh(int[] vertices, int[] indices, int[] blas, int[] subBlasRoots, int[] materials) {
+
+    public static final int STRIDE_VERTEX = 8;
+    public static final int STRIDE_MATERIAL = 15;
+
+    /** Stand-in for a mesh without an asset: no sub-mesh, so its instances are never hit */
+    public static final SerializedMesh EMPTY =
+            new SerializedMesh(new int[0], new int[0], new int[0], new int[0], new int[0]);
+
+    public int subMeshCount() {
+        return subBlasRoots.length;
+    }
+
+    public static SerializedMesh of(MeshGeometry geometry) {
+        int groups = geometry.groupCount();
+        int[] sourceIndices = geometry.indices();
+        int[] indices = new int[sourceIndices.length];
+        int[][] trees = new int[groups][];
+        int[] subBlasRoots = new int[groups];
+        int blasWords = 0;
+
+        for (int group = 0; group < groups; group++) {
+            int firstTriangle = geometry.groupStarts()[group] / 3;
+            SahBvh.Tree tree = SahBvh.buildTree(MeshStats.triangleBoxes(geometry, group), null,
+                    MeshStats.BLAS_MAX_LEAF_TRIANGLES, firstTriangle);
+
+            int[] order = tree.primitiveOrder();
+            for (int t = 0; t < order.length; t++) {
+                System.arraycopy(sourceIndices, (firstTriangle + order[t]) * 3, indices, (firstTriangle + t) * 3, 3);
+            }
+
+            trees[group] = tree.nodes();
+            subBlasRoots[group] = blasWords;
+            blasWords += tree.nodes().length;
+        }
+
+        int[] blas = new int[blasWords];
+        for (int group = 0; group < groups; group++) {
+            System.arraycopy(trees[group], 0, blas, subBlasRoots[group], trees[group].length);
+        }
+
+        return new SerializedMesh(vertices(geometry), indices, blas, subBlasRoots, materials(geometry));
+    }
+
+    private static int[] vertices(MeshGeometry geometry) {
+        int count = geometry.vertexCount();
+        int[] vertices = new int[STRIDE_VERTEX * count];
+        for (int v = 0; v < count; v++) {
+            int at = STRIDE_VERTEX * v;
+            for (int c = 0; c < 3; c++) {
+                vertices[at + c] = Float.floatToRawIntBits(geometry.positions()[3 * v + c]);
+                vertices[at + 3 + c] = Float.floatToRawIntBits(geometry.normals()[3 * v + c]);
+            }
+            vertices[at + 6] = Float.floatToRawIntBits(geometry.uvs()[2 * v]);
+            vertices[at + 7] = Float.floatToRawIntBits(geometry.uvs()[2 * v + 1]);
+        }
+        return vertices;
+    }
+
+    // Material.Serialize: Albedo (alpha forced to 1), EmissiveColor, EmissiveIntensity, Metalness, Roughness,
+    // Transmission, IOR 1.5; the texture indices (12..14) are still a TODO on the client and stay 0
+    private static int[] materials(MeshGeometry geometry) {
+        int[] materials = new int[STRIDE_MATERIAL * geometry.groupCount()];
+        for (int group = 0; group < geometry.groupCount(); group++) {
+            MeshGeometry.Material material = geometry.materials().get(group);
+            float[] values = {
+                    (float) material.albedo()[0], (float) material.albedo()[1], (float) material.albedo()[2], 1.0f,
+                    (float) material.emissiveColor()[0], (float) material.emissiveColor()[1],
+                    (float) material.emissiveColor()[2], (float) material.emissiveIntensity(),
+                    (float) material.metalness(), (float) material.roughness(),
+                    material.transparent() ? 1.0f : 0.0f, 1.5f
+            };
+            int at = STRIDE_MATERIAL * group;
+            for (int i = 0; i < values.length; i++) materials[at + i] = Float.floatToRawIntBits(values[i]);
+        }
+        return materials;
+    }
+}
@@ -0,0 +1,369 @@
+package com.capstone.backend.render;
+
+import com.capstone.backend.render.SceneAssets.LightAsset;
+import com.capstone.backend.render.SceneAssets.ObjectAsset;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Packs the GPU world of a scene into one little-endian buffer of 4-byte words
+ * Sections use the same strides and field layouts as the serializers in Structs.ts and the merge order of
+ * Renderer.SerializeWorldData, so the client can copy them into its buffers as-is:
+ * Scene buffer = INSTANCES .. LIGHT_SAMPLING, Geometry buffer = VERTICES .. SUB_BLAS_ROOTS, Accel buffer = BLAS.
+ * There is no TLAS section: the client has no TLAS yet (its TLAS array is empty), so the Accel buffer is the BLAS alone.
+ *
+ * Header
+ *   [0] magic 'PTWB'   [1] format version   [2] scene version   [3] section count
+ *   then per section, in buffer order: {section id, offset (words from buffer start), length (words), stride (words, 0 = variable)}
+ *
+ * Sections
+ *   INSTANCES         Instance.Stride (33): ModelMatrix f32x16, ModelMatrix_Inverse f32x16, MeshIndex u32
+ *   MESH_DESCRIPTORS  MeshDescriptor.Stride (6): Offset_Vertex, Offset_Index, Offset_Material, Offset_SubBlasRoot,
+ *                     Offset_Blas (words from the start of their own section), Count_SubMesh
+ *   MATERIALS         Material.Stride (15), per sub-mesh
+ *   LIGHTS            Light.Stride (18): Position, Direction, Color, U, V (f32x3 each), LightType u32, Intensity f32, Area f32
+ *   LIGHT_SAMPLING    LightSamplingTable buffer (CDF + alias table + emissive triangles)
+ *   VERTICES          8 words per vertex: position, normal, uv
+ *   INDICES           u32, every sub-mesh's triangles in BLAS leaf order
+ *   SUB_BLAS_ROOTS    u32 per sub-mesh: word offset of its BLAS root from the mesh's Offset_Blas
+ *   BLAS              three-mesh-bvh nodes (8 words), see SahBvh.Tree
+ *   MESH_TABLE        count u32, then per mesh: byte length u32 + UTF-8 name padded to 4 bytes;
+ *                     MeshIndex of an instance indexes this table (same order as World.PackWorldData)
+ *
+ * Meshes without an asset are packed empty (Count_SubMesh 0): their instances keep their slot but are never hit.
+ */
+public final class WorldBufferPacker {
+
+    public static final int MAGIC = 'P' | ('T' << 8) | ('W' << 16) | ('B' << 24);
+    public static final int FORMAT_VERSION = 3;
+
+    public static final int SECTION_INSTANCES = 1;
+    public static final int SECTION_LIGHTS = 2;
+    public static final int SECTION_LIGHT_SAMPLING = 3;
+    public static final int SECTION_MESH_TABLE = 4;
+    public static final int SECTION_MESH_DESCRIPTORS = 5;
+    public static final int SECTION_MATERIALS = 6;
+    public static final int SECTION_VERTICES = 7;
+    public static final int SECTION_INDICES = 8;
+    public static final int SECTION_SUB_BLAS_ROOTS = 9;
+    // 10 and 12 were the TLAS sections of format 2
+    public static final int SECTION_BLAS = 11;
+
+    public static final int STRIDE_INSTANCE = 33;
+    public static final int STRIDE_LIGHT = 18;
+    public static final int STRIDE_MESH_DESCRIPTOR = 6;
+
+    private static final int HEADER_WORDS = 4;
+    private static final int SECTION_ENTRY_WORDS = 4;
+
+    private record Section(int id, int stride, ByteBuffer data) {}
+
+    private WorldBufferPacker() {
+    }
+
+    /**
+     * @param meshes serialized mesh by name; empty for meshes without an asset
+     */
+    public static byte[] pack(SceneAssets assets, LightSamplingTable lightSamplingTable,
+                              Function<String, Optional<SerializedMesh>> meshes, int sceneVersion) {
+        List<ObjectAsset> instances = instances(assets);
+
+        // Mesh indices in order of first use, as in World.PackWorldData
+        Map<String, SerializedMesh> meshesByName = new LinkedHashMap<>();
+        for (ObjectAsset instance : instances) {
+            meshesByName.computeIfAbsent(instance.meshName(), name -> meshes.apply(name).orElse(SerializedMesh.EMPTY));
+        }
+        List<String> meshNames = new ArrayList<>(meshesByName.keySet());
+        List<SerializedMesh> meshList = new ArrayList<>(meshesByName.values());
+        Map<String, Integer> meshIndices = new HashMap<>();
+        for (String name : meshNames) meshIndices.put(name, meshIndices.size());
+
+        ByteBuffer instanceData = words(STRIDE_INSTANCE * instances.size());
+        for (ObjectAsset instance : instances) {
+            putInstance(instanceData, instance, meshIndices.get(instance.meshName()));
+        }
+
+        ByteBuffer lightData = words(STRIDE_LIGHT * assets.lights().size());
+        for (LightAsset light : assets.lights()) {
+            putLight(lightData, light);
+        }
+
+        // Renderer.SerializeWorldData: every array merged over the meshes, the offsets go into the descriptors
+        ByteBuffer descriptors = words(STRIDE_MESH_DESCRIPTOR * meshList.size());
+        int vertexWords = 0;
+        int indexWords = 0;
+        int materialWords = 0;
+        int subBlasRootWords = 0;
+        int blasWords = 0;
+        for (SerializedMesh mesh : meshList) {
+            descriptors.putInt(vertexWords).putInt(indexWords).putInt(materialWords)
+                    .putInt(subBlasRootWords).putInt(blasWords).putInt(mesh.subMeshCount());
+            vertexWords += mesh.vertices().length;
+            indexWords += mesh.indices().length;
+            materialWords += mesh.materials().length;
+            subBlasRootWords += mesh.subBlasRoots().length;
+            blasWords += mesh.blas().length;
+        }
+
+        List<Section> sections = List.of(
+                new Section(SECTION_INSTANCES, STRIDE_INSTANCE, instanceData),
+                new Section(SECTION_MESH_DESCRIPTORS, STRIDE_MESH_DESCRIPTOR, descriptors),
+                new Section(SECTION_MATERIALS, SerializedMesh.STRIDE_MATERIAL, merge(meshList, SerializedMesh::materials, materialWords)),
+                new Section(SECTION_LIGHTS, STRIDE_LIGHT, lightData),
+                new Section(SECTION_LIGHT_SAMPLING, 0, ByteBuffer.wrap(lightSamplingTable.buffer())),
+                new Section(SECTION_VERTICES, SerializedMesh.STRIDE_VERTEX, merge(meshList, SerializedMesh::vertices, vertexWords)),
+                new Section(SECTION_INDICES, 3, merge(meshList, SerializedMesh::indices, indexWords)),
+                new Section(SECTION_SUB_BLAS_ROOTS, 1, merge(meshList, SerializedMesh::subBlasRoots, subBlasRootWords)),
+                new Section(SECTION_BLAS, SahBvh.NODE_WORDS, merge(meshList, SerializedMesh::blas, blasWords)),
+                new Section(SECTION_MESH_TABLE, 0, meshTable(meshNames)));
+
+        int offset = HEADER_WORDS + SECTION_ENTRY_WORDS * sections.size();
+        int totalWords = offset + sections.stream().mapToInt(section -> section.data().capacity() / 4).sum();
+        ByteBuffer buffer = words(totalWords);
+
+        // Header + descriptor table
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(sceneVersion).putInt(sections.size());
+        for (Section section : sections) {
+            int length = section.data().capacity() / 4;
+            buffer.putInt(section.id()).putInt(offset).putInt(length).putInt(section.stride());
+            offset += length;
+        }
+        for (Section section : sections) {
+            buffer.put(section.data().array());
+        }
+
+        return buffer.array();
+    }
+
+    private static ByteBuffer merge(List<SerializedMesh> meshes, Function<SerializedMesh, int[]> array, int totalWords) {
+        ByteBuffer merged = words(totalWords);
+        for (SerializedMesh mesh : meshes) {
+            for (int word : array.apply(mesh)) merged.putInt(word);
+        }
+        return merged;
+    }
+
+    private static ByteBuffer meshTable(List<String> meshNames) {
+        List<byte[]> names = meshNames.stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+        ByteBuffer table = words(1 + names.stream().mapToInt(name -> 1 + (name.length + 3) / 4).sum());
+        table.putInt(names.size());
+        for (byte[] name : names) {
+            table.putInt(name.length);
+            table.put(name);
+            table.position(table.position() + (4 - name.length % 4) % 4);
+        }
+        return table;
+    }
+
+    private static ByteBuffer words(int count) {
+        return ByteBuffer.allocate(4 * count).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ==================== Instance (Structs.ts Instance) ====================
+
+    // World.InstancesPool is keyed by asset id: a repeated id replaces the instance but keeps its slot
+    static List<ObjectAsset> instances(SceneAssets assets) {
+        Map<String, ObjectAsset> instancesById = new LinkedHashMap<>();
+        for (ObjectAsset object : assets.objects()) instancesById.put(object.id(), object);
+        return new ArrayList<>(instancesById.values());
+    }
+
+    private static void putInstance(ByteBuffer buffer, ObjectAsset instance, int meshIndex) {
+        double[] model = modelMatrix(instance);
+
+        putFloats(buffer, model);
+        putFloats(buffer, Matrix4.invert(model));
+        buffer.putInt(meshIndex);
+    }
+
+    static double[] modelMatrix(ObjectAsset instance) {
+        double[] translation = Matrix4.translation(instance.position());
+        double[] rotation = Matrix4.fromQuat(eulerDegreesToQuat(instance.rotationDegrees()));
+        double[] scale = Matrix4.scaling(instance.scale());
+
+        // Same multiplication order as the Instance constructor: I * S * R * T
+        return Matrix4.multiply(Matrix4.multiply(scale, rotation), translation);
+    }
+
+    // World.ts eulerDegreesToQuat: q = qz * (qy * qx)
+    private static double[] eulerDegreesToQuat(double[] degrees) {
+        double x = Math.toRadians(degrees[0]);
+        double y = Math.toRadians(degrees[1]);
+        double z = Math.toRadians(degrees[2]);
+
+        double[] qx = {Math.sin(x * 0.5), 0, 0, Math.cos(x * 0.5)};
+        double[] qy = {0, Math.sin(y * 0.5), 0, Math.cos(y * 0.5)};
+        double[] qz = {0, 0, Math.sin(z * 0.5), Math.cos(z * 0.5)};
+
+        return quatMultiply(qz, quatMultiply(qy, qx));
+    }
+
+    private static double[] quatMultiply(double[] a, double[] b) {
+        return new double[]{
+                a[0] * b[3] + a[3] * b[0] + a[1] * b[2] - a[2] * b[1],
+                a[1] * b[3] + a[3] * b[1] + a[2] * b[0] - a[0] * b[2],
+                a[2] * b[3] + a[3] * b[2] + a[0] * b[1] - a[1] * b[0],
+                a[3] * b[3] - a[0] * b[0] - a[1] * b[1] - a[2] * b[2]
+        };
+    }
+
+    // ==================== Light (Structs.ts Light) ====================
+
+    private static void putLight(ByteBuffer buffer, LightAsset light) {
+        double[] zero = {0, 0, 0};
+
+        double[] position = zero;
+        double[] direction = zero;
+        double[] u = zero;
+        double[] v = zero;
+        double area = 0.0;
+
+        switch (light.type()) {
+            case DIRECTIONAL -> direction = normalize(light.direction());
+            case POINT -> position = light.position();
+            case RECT -> {
+                position = light.position();
+                u = light.u();
+                v = light.v();
+                direction = normalize(cross(u, v));
+                area = 4.0 * length(u) * length(v);
+            }
+        }
+
+        putFloats(buffer, position);
+        putFloats(buffer, direction);
+        putFloats(buffer, light.color());
+        putFloats(buffer, u);
+        putFloats(buffer, v);
+        buffer.putInt(light.type().gpuCode());
+        buffer.putFloat((float) light.intensity());
+        buffer.putFloat((float) area);
+    }
+
+    private static void putFloats(ByteBuffer buffer, double[] values) {
+        for (double value : values) buffer.putFloat((float) value);
+    }
+
+    private static double[] cross(double[] a, double[] b) {
+        return new double[]{
+                a[1] * b[2] - a[2] * b[1],
+                a[2] * b[0] - a[0] * b[2],
+                a[0] * b[1] - a[1] * b[0]
+        };
+    }
+
+    private static double[] normalize(double[] v) {
+        double length = length(v);
+        if (length <= 0.0) return new double[]{0, 0, 0};
+        return new double[]{v[0] / length, v[1] / length, v[2] / length};
+    }
+
+    private static double length(double[] v) {
+        return Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+    }
+
+    /**
+     * Column-major 4x4 matrices, matching wgpu-matrix's mat4 conventions.
+     */
+    static final class Matrix4 {
+
+        private Matrix4() {
+        }
+
+        static double[] identity() {
+            double[] m = new double[16];
+            m[0] = m[5] = m[10] = m[15] = 1.0;
+            return m;
+        }
+
+        static double[] translation(double[] t) {
+            double[] m = identity();
+            m[12] = t[0];
+            m[13] = t[1];
+            m[14] = t[2];
+            return m;
+        }
+
+        static double[] scaling(double[] s) {
+            double[] m = identity();
+            m[0] = s[0];
+            m[5] = s[1];
+            m[10] = s[2];
+            return m;
+        }
+
+        static double[] fromQuat(double[] q) {
+            double x = q[0], y = q[1], z = q[2], w = q[3];
+            double x2 = x + x, y2 = y + y, z2 = z + z;
+
+            double xx = x * x2, yx = y * x2, yy = y * y2;
+            double zx = z * x2, zy = z * y2, zz = z * z2;
+            double wx = w * x2, wy = w * y2, wz = w * z2;
+
+            return new double[]{
+                    1 - yy - zz, yx + wz, zx - wy, 0,
+                    yx - wz, 1 - xx - zz, zy + wx, 0,
+                    zx + wy, zy - wx, 1 - xx - yy, 0,
+                    0, 0, 0, 1
+            };
+        }
+
+        static double[] multiply(double[] a, double[] b) {
+            double[] m = new double[16];
+            for (int column = 0; column < 4; column++) {
+                for (int row = 0; row < 4; row++) {
+                    double sum = 0.0;
+                    for (int k = 0; k < 4; k++) sum += a[k * 4 + row] * b[column * 4 + k];
+                    m[column * 4 + row] = sum;
+                }
+            }
+            return m;
+        }
+
+        // Gauss-Jordan elimination with partial pivoting; singular matrices (zero scale) yield zeros
+        static double[] invert(double[] source) {
+            double[][] augmented = new double[4][8];
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 4; column++) augmented[row][column] = source[column * 4 + row];
+                augmented[row][4 + row] = 1.0;
+            }
+
+            for (int pivot = 0; pivot < 4; pivot++) {
+                int best = pivot;
+                for (int row = pivot + 1; row < 4; row++) {
+                    if (Math.abs(augmented[row][pivot]) > Math.abs(augmented[best][pivot])) best = row;
+                }
+                if (Math.abs(augmented[best][pivot]) < 1e-12) return new double[16];
+
+                double[] swap = augmented[pivot];
+                augmented[pivot] = augmented[best];
+                augmented[best] = swap;
+
+                double scale = augmented[pivot][pivot];
+                for (int column = 0; column < 8; column++) augmented[pivot][column] /= scale;
+
+                for (int row = 0; row < 4; row++) {
+                    if (row == pivot) continue;
+                    double factor = augmented[row][pivot];
+                    if (factor == 0.0) continue;
+                    for (int column = 0; column < 8; column++) augmented[row][column] -= factor * augmented[pivot][column];
+                }
+            }
+
+            double[] inverse = new double[16];
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 4; column++) inverse[column * 4 + row] = augmented[row][4 + column];
+            }
+            return inverse;
+        }
+    }
+}
@@ -1,13 +1,71 @@
 package com.capstone.backend.repository;
 
 import com.capstone.backend.entity.Scene;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SceneRepository extends JpaRepository<Scene, Long> {
     List<Scene> findByUserId(Long userId);
-    List<Scene> findByUserUsername(String username);
+
+    // Shard lookup (see SceneShardRouter), without loading assets
+    interface SceneOwner {
+        Long getUserId();
+        String getOwnerUsername();
+    }
+
+    @Query("select s.userId as userId, s.ownerUsername as ownerUsername from Scene s where s.id = :id")
+    Optional<SceneOwner> findOwnerById(@Param("id") Long id);
+
+    // Saves lock the scene row, so concurrent saves of one scene get consecutive version numbers
+    // instead of both computing currentVersion + 1 and failing on uk_scene_versions_scene_version
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Scene s where s.id = :id")
+    Optional<Scene> findByIdForUpdate(@Param("id") Long id);
+
+    // Cache validation for per-version derived data, without loading assets
+    @Query("select s.currentVersion from Scene s where s.id = :id")
+    Optional<Integer> findCurrentVersionById(@Param("id") Long id);
+
+    // Search result row: every list column except assets, so the jsonb document is never read (or detoasted)
+    // Aliases are quoted because PostgreSQL folds unquoted ones to lower case
+    interface SceneSummary {
+        Long getId();
+        String getName();
+        String getDescription();
+        String getThumbnailUrl();
+        Long getUserId();
+        String getOwnerUsername();
+        Integer getCurrentVersion();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    String SUMMARY_COLUMNS = "s.id AS \"id\", s.name AS \"name\", s.description AS \"description\", " +
+            "s.thumbnail_url AS \"thumbnailUrl\", s.user_id AS \"userId\", s.owner_username AS \"ownerUsername\", " +
+            "s.current_version AS \"currentVersion\", s.created_at AS \"createdAt\", s.updated_at AS \"updatedAt\"";
+
+    // Backed by the pg_trgm GIN indexes on name / description (see db/migration/V2__scene_search_indexes.sql)
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM scenes s " +
+            "WHERE (s.name ILIKE :pattern OR s.description ILIKE :pattern) AND s.id < :cursor " +
+            "ORDER BY s.id DESC LIMIT :limit", nativeQuery = true)
+    List<SceneSummary> searchByText(@Param("pattern") String pattern,
+                                    @Param("cursor") Long cursor,
+                                    @Param("limit") int limit);
+
+    // Backed by the jsonb_path_ops GIN index on assets (see db/migration/V2__scene_search_indexes.sql)
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM scenes s " +
+            "WHERE s.assets @> CAST(:containment AS jsonb) AND s.id < :cursor " +
+            "ORDER BY s.id DESC LIMIT :limit", nativeQuery = true)
+    List<SceneSummary> findByAssetsContaining(@Param("containment") String containment,
+                                              @Param("cursor") Long cursor,
+                                              @Param("limit") int limit);
 }
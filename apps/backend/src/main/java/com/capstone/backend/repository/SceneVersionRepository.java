@@ -0,0 +1,40 @@
+package com.capstone.backend.repository;
+
+import com.capstone.backend.dto.SceneVersionSummary;
+import com.capstone.backend.entity.SceneVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SceneVersionRepository extends JpaRepository<SceneVersion, Long> {
+
+    @Query("select new com.capstone.backend.dto.SceneVersionSummary(v.version, v.kind, v.name, v.createdAt) " +
+            "from SceneVersion v where v.scene.id = :sceneId order by v.version desc")
+    List<SceneVersionSummary> findSummariesBySceneId(@Param("sceneId") Long sceneId);
+
+    Optional<SceneVersion> findBySceneIdAndVersion(Long sceneId, Integer version);
+
+    Optional<SceneVersion> findTopBySceneIdAndKindAndVersionLessThanEqualOrderByVersionDesc(
+            Long sceneId, SceneVersion.Kind kind, Integer version);
+
+    List<SceneVersion> findBySceneIdAndVersionBetweenOrderByVersionAsc(Long sceneId, Integer from, Integer to);
+
+    // [version, stored payload bytes], newest first
+    @Query(value = "SELECT v.version, pg_column_size(v.payload) FROM scene_versions v " +
+            "WHERE v.scene_id = :sceneId ORDER BY v.version DESC", nativeQuery = true)
+    List<Object[]> findPayloadSizesBySceneId(@Param("sceneId") Long sceneId);
+
+    // Size of a document as a jsonb value before TOAST compression, an upper bound of its stored size
+    @Query(value = "SELECT pg_column_size(CAST(:payload AS jsonb))", nativeQuery = true)
+    Integer findJsonbSize(@Param("payload") String payload);
+
+    @Modifying
+    @Query("delete from SceneVersion v where v.scene.id = :sceneId and v.version < :version")
+    int deleteOlderThan(@Param("sceneId") Long sceneId, @Param("version") Integer version);
+}
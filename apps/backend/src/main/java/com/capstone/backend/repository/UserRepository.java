@@ -1,10 +1,14 @@
 package com.capstone.backend.repository;
 
 import com.capstone.backend.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Warming the availability filter (see UserAvailabilityService), without loading whole users
+    interface UserIdentity {
+        String getUsername();
+        String getEmail();
+    }
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select u.username as username, u.email as email from User u")
+    Stream<UserIdentity> streamIdentities();
 }
@@ -0,0 +1,302 @@
+package com.capstone.backend.repository.shard;
+
+import com.capstone.backend.config.ShardingProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes scene data access to the owner's shard
+ * - users (shard 0) record the shard holding their scenes; new users are placed by a hash of the username
+ * - scene ids are allocated modulo the shard count (see ShardSchemaInitializer), so a scene is found on shard
+ *   id % count unless it was moved away; moved scenes are listed in scene_shard_overrides (shard 0).
+ *   Either way the owner's users row decides the shard, read on every lookup, so moves made by any instance are seen.
+ * - work runs in a transaction bound to one shard; a transaction never spans shards
+ * - requests hold the owner's scene lock (ShardLocks) shared in their transaction and check users.shard under it;
+ *   a move's switch-over holds it exclusively on the source shard while flipping users.shard
+ * - during a move the owner's scenes exist on two shards: rows on a shard other than users.shard are a copy
+ *   (users.stale_shard) that reads ignore
+ * Nothing about a move is kept in memory, so it runs while any number of instances serve the user.
+ */
+@Component
+public class SceneShardRouter {
+
+    private static final int MAX_LOCATE_ATTEMPTS = 3;
+
+    private static final String SELECT_USER = "SELECT id, username, shard, stale_shard FROM users";
+
+    private static final RowMapper<ShardUser> SHARD_USER = (rs, rowNum) -> new ShardUser(
+            rs.getLong("id"), rs.getString("username"), rs.getInt("shard"), (Integer) rs.getObject("stale_shard"));
+
+    private final ShardRoutingDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate; // on the application DataSource, joins the shard transactions
+    private final List<JdbcTemplate> shards; // one per shard, outside any transaction
+    private final TransactionTemplate readWriteTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService scatterExecutor;
+
+    // scene id -> owner id, LRU; a scene never changes owner, so entries stay valid across moves
+    private final Map<Long, Long> owners;
+
+    /**
+     * Users row fields the router works with (shard 0).
+     */
+    public record ShardUser(Long id, String username, int shard, Integer staleShard) {}
+
+    public record SceneLocation(int shard, Long userId, String ownerUsername) {}
+
+    public SceneShardRouter(ShardRoutingDataSource dataSource,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ShardingProperties shardingProperties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+
+        List<JdbcTemplate> shards = new ArrayList<>();
+        for (int shard = 0; shard < dataSource.shardCount(); shard++) {
+            shards.add(new JdbcTemplate(dataSource.shard(shard)));
+        }
+        this.shards = List.copyOf(shards);
+
+        this.readWriteTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        int cacheSize = shardingProperties.getLocationCacheSize();
+        this.owners = Collections.synchronizedMap(new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(Math.max(2, dataSource.shardCount() * 4), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int shardCount() {
+        return dataSource.shardCount();
+    }
+
+    /**
+     * Shard for a new user. Stored in users.shard, so adding shards later doesn't move existing users.
+     */
+    public int placeNewUser(String username) {
+        return (int) Math.floorMod(mix(username.hashCode()), (long) shardCount());
+    }
+
+    // Users are read outside the caller's transaction, which may be about to pick another shard
+
+    public Optional<ShardUser> findUser(String username) {
+        return shards.get(0).query(SELECT_USER + " WHERE username = ?", SHARD_USER, username).stream().findFirst();
+    }
+
+    public Optional<ShardUser> findUser(Long userId) {
+        return shards.get(0).query(SELECT_USER + " WHERE id = ?", SHARD_USER, userId).stream().findFirst();
+    }
+
+    /**
+     * Runs work in a transaction on the given shard. Inside a transaction (a @Transactional caller) the work joins it,
+     * and the transaction stays on this shard: its connection is only opened by the first statement.
+     */
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            Integer current = ShardContext.current();
+            if (current == null) {
+                ShardContext.bindToTransaction(shard);
+            } else if (current != shard) {
+                throw new IllegalStateException("Transaction on shard " + current + " can't access shard " + shard);
+            }
+            return work.get();
+        }
+
+        TransactionTemplate transaction = readOnly ? readOnlyTransaction : readWriteTransaction;
+        return ShardContext.callOn(shard, () -> transaction.execute(status -> work.get()));
+    }
+
+    /**
+     * Runs work on the shard holding the user's scenes (creating a scene, listing a user's scenes).
+     */
+    public <T> T inOwnerShard(String username, boolean readOnly, Function<ShardUser, T> work) {
+        return routed(() -> findUser(username).orElseThrow(() -> new RuntimeException("User not found")),
+                readOnly, work);
+    }
+
+    /**
+     * Runs work on the shard holding the scene.
+     */
+    public <T> T inSceneShard(Long sceneId, boolean readOnly, Supplier<T> work) {
+        return routed(() -> {
+            Long userId = findOwnerId(sceneId).orElseThrow(() -> new RuntimeException("Scene not found"));
+            return findUser(userId).orElseThrow(() -> new RuntimeException("Scene not found"));
+        }, readOnly, user -> work.get());
+    }
+
+    /**
+     * Runs work on every shard in parallel; results are indexed by shard.
+     */
+    public <T> List<T> inAllShards(boolean readOnly, Function<Integer, T> work) {
+        int count = shardCount();
+        if (count == 1) {
+            return Collections.singletonList(inShard(0, readOnly, () -> work.apply(0)));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> inShard(target, readOnly, () -> work.apply(target)), scatterExecutor));
+        }
+
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return results;
+    }
+
+    public Optional<SceneLocation> locate(Long sceneId) {
+        return findOwnerId(sceneId)
+                .flatMap(this::findUser)
+                .map(user -> new SceneLocation(user.shard(), user.id(), user.username()));
+    }
+
+    /**
+     * Shard holding each user's scenes; scatter-gather keeps only the rows found there.
+     */
+    public Map<Long, Integer> ownerShards(Collection<Long> userIds) {
+        Map<Long, Integer> owners = new HashMap<>();
+        if (userIds.isEmpty()) return owners;
+        shards.get(0).query("SELECT id, shard FROM users WHERE id = ANY(?)",
+                (RowCallbackHandler) rs -> owners.put(rs.getLong(1), rs.getInt(2)),
+                (Object) userIds.toArray(Long[]::new));
+        return owners;
+    }
+
+    // --- SceneShardRebalancer hooks ---
+
+    /**
+     * Marks the target of a move, which holds a copy until the switch-over.
+     * @return false if the user has a stale copy already, or moved meanwhile
+     */
+    public boolean beginMove(Long userId, int sourceShard, int targetShard) {
+        return shards.get(0).update("UPDATE users SET stale_shard = ? WHERE id = ? AND shard = ? AND stale_shard IS NULL",
+                targetShard, userId, sourceShard) == 1;
+    }
+
+    /**
+     * Called under the source's scene lock after the last catch-up: points users.shard at the target, makes the source
+     * copy the stale one and records which of the scenes now live away from their id's shard, in one transaction.
+     */
+    public void switchMove(Long userId, int sourceShard, int targetShard, Collection<Long> sceneIds) {
+        int count = shardCount();
+        inShard(0, false, () -> {
+            jdbcTemplate.update("UPDATE users SET shard = ?, stale_shard = ? WHERE id = ?", targetShard, sourceShard, userId);
+            jdbcTemplate.update("DELETE FROM scene_shard_overrides WHERE user_id = ?", userId);
+            jdbcTemplate.batchUpdate("INSERT INTO scene_shard_overrides (scene_id, user_id) VALUES (?, ?)", sceneIds.stream()
+                    .filter(sceneId -> Math.floorMod(sceneId, (long) count) != targetShard)
+                    .map(sceneId -> new Object[]{sceneId, userId})
+                    .toList());
+            return null;
+        });
+    }
+
+    public void endMove(Long userId) {
+        shards.get(0).update("UPDATE users SET stale_shard = NULL WHERE id = ?", userId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdown();
+    }
+
+    private Optional<Long> findOwnerId(Long sceneId) {
+        Long cached = owners.get(sceneId);
+        if (cached != null) return Optional.of(cached);
+
+        // Rows on the id's shard may also be a stale copy, but the owner is the same
+        int home = (int) Math.floorMod(sceneId, (long) shardCount());
+        Optional<Long> owner = shards.get(home).queryForList("SELECT user_id FROM scenes WHERE id = ?", Long.class, sceneId)
+                .stream().findFirst();
+        if (owner.isEmpty()) {
+            owner = shards.get(0).queryForList("SELECT user_id FROM scene_shard_overrides WHERE scene_id = ?", Long.class, sceneId)
+                    .stream().findFirst();
+        }
+        owner.ifPresent(userId -> owners.put(sceneId, userId));
+        return owner;
+    }
+
+    /**
+     * Runs work in the owner's shard under the owner's scene lock, once users.shard still names that shard.
+     * A move switching over meanwhile is waited for; the work then runs on the new shard, or - inside a caller's
+     * transaction, which can't change shards - fails with a retry message.
+     */
+    private <T> T routed(Supplier<ShardUser> owner, boolean readOnly, Function<ShardUser, T> work) {
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 0; attempt < MAX_LOCATE_ATTEMPTS; attempt++) {
+            ShardUser user = owner.get();
+            try {
+                return inShard(user.shard(), readOnly, () -> {
+                    jdbcTemplate.execute("SELECT pg_advisory_xact_lock_shared(" + ShardLocks.USER_SCENES_LOCK + ", "
+                            + ShardLocks.key(user.id()) + ")");
+                    // On shard 0 the transaction's own connection reads users, so a request never waits for a second one
+                    JdbcTemplate users = user.shard() == 0 ? jdbcTemplate : shards.get(0);
+                    List<Integer> current = users.queryForList("SELECT shard FROM users WHERE id = ?", Integer.class, user.id());
+                    if (current.isEmpty() || current.get(0) != user.shard()) {
+                        throw new OwnerMovedException();
+                    }
+                    return work.apply(user);
+                });
+            } catch (OwnerMovedException e) {
+                if (joined) break;
+            }
+        }
+        throw new RuntimeException("Scene is being moved to another shard, please retry");
+    }
+
+    // Rolls back the transaction on the old shard before routing again
+    private static class OwnerMovedException extends RuntimeException {
+        OwnerMovedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // MurmurHash3 finalizer, spreads similar usernames over the shards
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
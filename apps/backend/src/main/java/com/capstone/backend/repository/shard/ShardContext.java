@@ -0,0 +1,53 @@
+package com.capstone.backend.repository.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard selected for the current thread, read by ShardRoutingDataSource when a connection is opened.
+ * Connections are opened at the first statement (see ShardingConfig), so a shard selected inside a transaction
+ * still decides where it runs - use SceneShardRouter instead of calling this directly.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return selected shard, or null for the default shard 0
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Selects the shard until the current transaction completes; its connection stays on that shard.
+     */
+    static void bindToTransaction(int shard) {
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CURRENT.remove();
+            }
+        });
+    }
+}
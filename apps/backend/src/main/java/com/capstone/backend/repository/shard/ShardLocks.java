@@ -0,0 +1,94 @@
+package com.capstone.backend.repository.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * PostgreSQL advisory locks coordinating backend instances, each held on a connection of its own
+ * - startup steps changing state shared by all instances (scene id sequences) run under the startup lock on shard 0
+ * - a user is moved by one instance at a time: the mover holds the user's move lock on shard 0
+ * - the switch-over of a move holds the user's scene lock on the source shard exclusively; requests hold it
+ *   shared in their own transaction on the same shard (SceneShardRouter), so the switch-over waits for them
+ * PostgreSQL releases advisory locks with the session, so a crashed instance never leaves one behind.
+ * Keys are (lock class, id) pairs; user ids beyond the int range only share a key with another user.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardLocks {
+
+    static final int STARTUP_LOCK = 0x53430001;
+    static final int USER_MOVE_LOCK = 0x53430002;
+    static final int USER_SCENES_LOCK = 0x53430003;
+
+    private final ShardRoutingDataSource dataSource;
+
+    /**
+     * Runs work while other starting instances wait for it (blocks until those already in it are done).
+     */
+    public void duringStartup(Runnable work) {
+        whileLocked(0, STARTUP_LOCK, 0, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs work under the user's move lock, unless another instance is moving the user.
+     */
+    public <T> Optional<T> whileMoving(Long userId, Supplier<T> work) {
+        return onSession(0, session -> {
+            Boolean acquired = session.queryForObject("SELECT pg_try_advisory_lock(?, ?)", Boolean.class,
+                    USER_MOVE_LOCK, key(userId));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(work.get());
+        });
+    }
+
+    /**
+     * Runs work while no request works on the user's scenes on the shard (waits for the running ones).
+     */
+    public <T> T whileScenesLocked(Long userId, int shard, Supplier<T> work) {
+        return whileLocked(shard, USER_SCENES_LOCK, key(userId), work);
+    }
+
+    static int key(Long userId) {
+        return (int) userId.longValue();
+    }
+
+    private <T> T whileLocked(int shard, int lockClass, int key, Supplier<T> work) {
+        return onSession(shard, session -> {
+            session.execute("SELECT pg_advisory_lock(" + lockClass + ", " + key + ")");
+            return work.get();
+        });
+    }
+
+    // One connection per lock, used for nothing else; its locks are released before it goes back to the pool
+    private <T> T onSession(int shard, Function<JdbcTemplate, T> work) {
+        try (Connection connection = dataSource.shard(shard).getConnection()) {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            try {
+                return work.apply(session);
+            } finally {
+                try {
+                    session.execute("SELECT pg_advisory_unlock_all()");
+                } catch (RuntimeException e) {
+                    log.warn("Releasing advisory locks on shard {} failed: {}", shard, e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Can't open a lock connection on shard " + shard, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.capstone.backend.repository.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource routing each new connection to the shard in ShardContext (shard 0 when none is set).
+ * Wrapped in a LazyConnectionDataSourceProxy (ShardingConfig), so "new connection" means the first statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        // An unknown shard is a routing bug, never silently shard 0
+        setLenientFallback(false);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Direct access to one shard, bypassing routing (schema migration at startup).
+     */
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A transaction that started on the default shard stays there; SceneShardRouter.inShard then rejects other shards
+            ShardContext.bindToTransaction(0);
+            return 0;
+        }
+        return shard;
+    }
+
+    // Picked up as the bean's destroy method, closes the connection pools
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
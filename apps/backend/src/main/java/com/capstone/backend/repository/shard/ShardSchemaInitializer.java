@@ -0,0 +1,127 @@
+package com.capstone.backend.repository.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares the shards before the application serves requests
+ * - runs the Flyway migrations on shards 1..N (shard 0 is migrated by Spring Boot)
+ * - makes scene ids globally unique: every shard's id sequence steps by the shard count,
+ *   starting at its own residue above the highest id on any shard. Ids keep identifying a scene
+ *   after SceneShardRebalancer moved it, and id % shardCount is its shard unless it was moved (see SceneShardRouter).
+ * - lists the scenes that aren't on shard id % shardCount in scene_shard_overrides whenever the shard count changed
+ * Both run under the startup lock, so instances starting together don't restart the sequences over each other.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final String SCENE_ID_SEQUENCE = "SELECT increment_by, start_value, last_value FROM pg_sequences " +
+            "WHERE schemaname || '.' || sequencename = pg_get_serial_sequence('scenes', 'id')";
+
+    private static final String INSERT_OVERRIDE = "INSERT INTO scene_shard_overrides (scene_id, user_id) VALUES (?, ?) " +
+            "ON CONFLICT (scene_id) DO NOTHING";
+
+    private static final int OVERRIDE_BATCH_SIZE = 1000;
+
+    private final ShardRoutingDataSource dataSource;
+    private final ObjectProvider<FlywayProperties> flywayProperties;
+    private final ShardLocks shardLocks;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        FlywayProperties properties = flywayProperties.getIfAvailable();
+        if (properties != null && properties.isEnabled()) {
+            for (int shard = 1; shard < dataSource.shardCount(); shard++) {
+                migrate(shard, properties);
+            }
+        }
+        shardLocks.duringStartup(() -> {
+            recordOverrides();
+            alignSceneIds();
+        });
+    }
+
+    private void migrate(int shard, FlywayProperties properties) {
+        // ${shard} tells the migrations which database they run on (users only exist on shard 0)
+        Map<String, String> placeholders = new HashMap<>(properties.getPlaceholders());
+        placeholders.put("shard", String.valueOf(shard));
+
+        Flyway.configure()
+                .dataSource(dataSource.shard(shard))
+                .locations(properties.getLocations().toArray(String[]::new))
+                .placeholders(placeholders)
+                .baselineOnMigrate(properties.isBaselineOnMigrate())
+                .baselineVersion(properties.getBaselineVersion())
+                .load()
+                .migrate();
+    }
+
+    // Scenes created with another shard count (or before sharding) may sit on any shard
+    private void recordOverrides() {
+        int count = dataSource.shardCount();
+        JdbcTemplate overrides = new JdbcTemplate(dataSource.shard(0));
+        List<Integer> recorded = overrides.queryForList("SELECT shard_count FROM scene_shard_layout", Integer.class);
+        if (!recorded.isEmpty() && recorded.get(0) == count) return;
+
+        for (int shard = 0; shard < count; shard++) {
+            List<Object[]> batch = new ArrayList<>();
+            // Stale copies have the same owner, so listing them too is harmless
+            new JdbcTemplate(dataSource.shard(shard)).query("SELECT id, user_id FROM scenes WHERE id % ? <> ?",
+                    (RowCallbackHandler) rs -> {
+                        batch.add(new Object[]{rs.getLong(1), rs.getLong(2)});
+                        if (batch.size() == OVERRIDE_BATCH_SIZE) {
+                            overrides.batchUpdate(INSERT_OVERRIDE, batch);
+                            batch.clear();
+                        }
+                    }, count, shard);
+            overrides.batchUpdate(INSERT_OVERRIDE, batch);
+        }
+        Long listed = overrides.queryForObject("SELECT COUNT(*) FROM scene_shard_overrides", Long.class);
+        overrides.update("INSERT INTO scene_shard_layout (id, shard_count) VALUES (1, ?) " +
+                "ON CONFLICT (id) DO UPDATE SET shard_count = EXCLUDED.shard_count", count);
+        log.info("Scene lookup prepared for {} shards, {} scenes listed away from their id's shard", count, listed);
+    }
+
+    private void alignSceneIds() {
+        int count = dataSource.shardCount();
+        long highestId = 0;
+        boolean aligned = true;
+
+        for (int shard = 0; shard < count; shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource.shard(shard));
+            Map<String, Object> sequence = jdbc.queryForMap(SCENE_ID_SEQUENCE);
+            long increment = ((Number) sequence.get("increment_by")).longValue();
+            Number lastValue = (Number) sequence.get("last_value");
+            long nextId = lastValue == null
+                    ? ((Number) sequence.get("start_value")).longValue()
+                    : lastValue.longValue() + increment;
+
+            Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM scenes", Long.class);
+            highestId = Math.max(highestId, Math.max(maxId == null ? 0 : maxId, nextId - 1));
+            aligned &= increment == count && Math.floorMod(nextId, (long) count) == shard;
+        }
+        if (aligned) return;
+
+        // Shard k continues at base + k, base + k + count, ... above every id handed out so far
+        long base = (highestId / count + 1) * count;
+        for (int shard = 0; shard < count; shard++) {
+            new JdbcTemplate(dataSource.shard(shard)).execute(
+                    "ALTER TABLE scenes ALTER COLUMN id SET INCREMENT BY " + count + " RESTART WITH " + (base + shard));
+        }
+        log.info("Scene id sequences aligned to {} shards starting at {}", count, base);
+    }
+}
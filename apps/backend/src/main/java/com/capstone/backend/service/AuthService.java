@@ -5,7 +5,10 @@ import com.capstone.backend.dto.LoginRequest;
 import com.capstone.backend.dto.SignupRequest;
 import com.capstone.backend.entity.User;
 import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,31 +17,36 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class AuthService {
 
+    // users table constraints (V1__init_schema.sql, renamed by V5 on databases created by Hibernate)
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+    private static final String EMAIL_CONSTRAINT = "uk_users_email";
+    // PostgreSQL unique_violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SceneShardRouter sceneShardRouter;
+    private final UserAvailabilityService userAvailabilityService;
     // private final JwtTokenProvider jwtTokenProvider; // Uncomment when JWT is enabled
 
-    @Transactional
+    // No surrounding transaction: the insert commits on its own, and users live on shard 0 (the default)
     public AuthResponse signup(SignupRequest request) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        // Create new user
         User user = User.builder()
                 .username(request.getUsername())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .email(request.getEmail())
                 .nickname(request.getNickname())
+                .shard(sceneShardRouter.placeNewUser(request.getUsername()))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        // Single insert; duplicates are rejected by the unique constraints instead of exists checks
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
+        userAvailabilityService.registered(savedUser.getUsername(), savedUser.getEmail());
 
         // Generate JWT token (currently disabled)
         // String token = jwtTokenProvider.generateToken(savedUser.getUsername());
@@ -76,4 +84,22 @@ public class AuthService {
                 .message("Login successful")
                 .build();
     }
+
+    private static RuntimeException duplicateUser(DataIntegrityViolationException e) {
+        ConstraintViolationException violation = e.getCause() instanceof ConstraintViolationException cause ? cause : null;
+        String constraint = violation != null ? violation.getConstraintName() : null;
+        String detail = constraint != null ? constraint : String.valueOf(e.getMostSpecificCause().getMessage());
+
+        if (detail.contains(USERNAME_CONSTRAINT)) {
+            return new RuntimeException("Username already exists");
+        }
+        if (detail.contains(EMAIL_CONSTRAINT)) {
+            return new RuntimeException("Email already exists");
+        }
+        // Unique constraint under another name: still a duplicate, without saying which field
+        if (violation != null && UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+            return new RuntimeException("User already exists");
+        }
+        return e;
+    }
 }
@@ -0,0 +1,160 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.render.AtrousDenoiser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Denoises path-traced frames read back from the GPU
+ * - every image is rgba32float little-endian, either tightly packed or with rows padded to 256 bytes
+ *   (the bytesPerRow of a WebGPU texture-to-buffer copy); the layout is detected from the length
+ * - gbuffer is the visibility buffer written by PT_01_GBufferPass; its instance/material id is used as the surface id
+ * - rows are filtered in parallel on a dedicated pool, and at most denoise.max-concurrent-jobs frames run at once
+ */
+@Slf4j
+@Service
+public class DenoiseService {
+
+    private static final int BYTES_PER_PIXEL = 16; // rgba32float
+    private static final int ROW_ALIGNMENT = 256;
+
+    // PT_01_GBufferPass: r = bitcast(valid << 31 | InstanceID << 16 | MaterialID)
+    private static final int GBUFFER_VALID_BIT = 0x80000000;
+
+    @Value("${denoise.parallelism:0}")
+    private int parallelism;
+
+    @Value("${denoise.max-pixels:3686400}")
+    private int maxPixels;
+
+    @Value("${denoise.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    private ForkJoinPool pool;
+    private Semaphore jobs;
+
+    @PostConstruct
+    void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+        jobs = new Semaphore(maxConcurrentJobs);
+        log.info("Denoiser pool started with {} threads, {} concurrent jobs", threads, maxConcurrentJobs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @param gbuffer  PT_01 visibility buffer, or null
+     * @param albedo   rgba32float albedo, or null
+     * @param normal   rgba32float normal (xyz), or null
+     * @param depth    rgba32float with depth in r, or null
+     * @return denoised rgba32float little-endian, tightly packed; alpha is copied from the radiance
+     */
+    public byte[] denoise(int width, int height, int iterations,
+                          byte[] radiance, byte[] gbuffer, byte[] albedo, byte[] normal, byte[] depth) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height must be positive");
+        }
+        if ((long) width * height > maxPixels) {
+            throw new IllegalArgumentException("Frame exceeds " + maxPixels + " pixels");
+        }
+        if (iterations < 1 || iterations > AtrousDenoiser.MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be between 1 and " + AtrousDenoiser.MAX_ITERATIONS);
+        }
+        if (radiance == null) {
+            throw new IllegalArgumentException("Radiance is required");
+        }
+
+        if (!jobs.tryAcquire()) {
+            throw new IllegalStateException("Denoiser is busy");
+        }
+        try {
+            float[][] radiancePlanes = decode(radiance, width, height, 4, "radiance");
+            AtrousDenoiser.Frame frame = new AtrousDenoiser.Frame(width, height,
+                    radiancePlanes,
+                    albedo != null ? decode(albedo, width, height, 3, "albedo") : null,
+                    normal != null ? decode(normal, width, height, 3, "normal") : null,
+                    depth != null ? decode(depth, width, height, 1, "depth")[0] : null,
+                    gbuffer != null ? decodeSurfaceIds(gbuffer, width, height) : null);
+
+            long start = System.nanoTime();
+            float[][] result = AtrousDenoiser.denoise(frame, iterations, pool);
+            log.debug("Denoised {}x{} frame ({} iterations) in {} ms",
+                    width, height, iterations, (System.nanoTime() - start) / 1_000_000);
+
+            return encode(result, radiancePlanes[3], width, height);
+        } finally {
+            jobs.release();
+        }
+    }
+
+    // First `channels` planes of an rgba32float image; non-finite values (NaN / Inf fireflies) become 0
+    private static float[][] decode(byte[] bytes, int width, int height, int channels, String name) {
+        int rowStride = rowStride(bytes.length, width, height, name);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        float[][] planes = new float[channels][width * height];
+        for (int y = 0; y < height; y++) {
+            int rowOffset = y * rowStride;
+            for (int x = 0; x < width; x++) {
+                int offset = rowOffset + x * BYTES_PER_PIXEL;
+                int p = y * width + x;
+                for (int c = 0; c < channels; c++) {
+                    float value = buffer.getFloat(offset + c * Float.BYTES);
+                    planes[c][p] = Float.isFinite(value) ? value : 0f;
+                }
+            }
+        }
+        return planes;
+    }
+
+    private static int[] decodeSurfaceIds(byte[] bytes, int width, int height) {
+        int rowStride = rowStride(bytes.length, width, height, "gbuffer");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        int[] ids = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int rowOffset = y * rowStride;
+            for (int x = 0; x < width; x++) {
+                int bits = buffer.getInt(rowOffset + x * BYTES_PER_PIXEL);
+                ids[y * width + x] = (bits & GBUFFER_VALID_BIT) != 0 ? bits & ~GBUFFER_VALID_BIT : AtrousDenoiser.NO_SURFACE;
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] encode(float[][] rgb, float[] alpha, int width, int height) {
+        int pixels = width * height;
+        ByteBuffer buffer = ByteBuffer.allocate(pixels * BYTES_PER_PIXEL).order(ByteOrder.LITTLE_ENDIAN);
+        for (int p = 0; p < pixels; p++) {
+            buffer.putFloat(rgb[0][p]).putFloat(rgb[1][p]).putFloat(rgb[2][p]).putFloat(alpha[p]);
+        }
+        return buffer.array();
+    }
+
+    private static int rowStride(int length, int width, int height, String name) {
+        int packed = width * BYTES_PER_PIXEL;
+        int aligned = (packed + ROW_ALIGNMENT - 1) / ROW_ALIGNMENT * ROW_ALIGNMENT;
+
+        if ((long) packed * height == length) {
+            return packed;
+        }
+        // A readback buffer may omit the padding after the last row
+        if ((long) aligned * height == length || (long) aligned * (height - 1) + packed == length) {
+            return aligned;
+        }
+        throw new IllegalArgumentException("Unexpected " + name + " size: " + length + " bytes for "
+                + width + "x" + height + " rgba32float");
+    }
+}
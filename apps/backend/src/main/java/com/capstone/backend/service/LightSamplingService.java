@@ -0,0 +1,81 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.entity.Scene;
+import com.capstone.backend.render.LightSamplingTable;
+import com.capstone.backend.render.MeshGeometry;
+import com.capstone.backend.render.SceneAssets;
+import com.capstone.backend.render.SceneVersionCache;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Light sampling tables (lights and emissive mesh triangles) per scene version
+ * Built once when a version is first requested; later saves rebuild incrementally from the cached table,
+ * reusing light powers and the emissive triangles of instances that didn't change.
+ */
+@Service
+@RequiredArgsConstructor
+public class LightSamplingService {
+
+    private static final int CACHE_CAPACITY = 1024;
+
+    private final SceneRepository sceneRepository;
+    private final SceneShardRouter sceneShardRouter;
+    private final MeshAssetService meshAssetService;
+    private final ObjectMapper objectMapper;
+
+    private final SceneVersionCache<LightSamplingTable> cache = new SceneVersionCache<>(CACHE_CAPACITY);
+
+    public SceneVersionCache.Entry<LightSamplingTable> getLightSamplingTable(Long sceneId) {
+        return sceneShardRouter.inSceneShard(sceneId, true, () -> loadLightSamplingTable(sceneId));
+    }
+
+    private SceneVersionCache.Entry<LightSamplingTable> loadLightSamplingTable(Long sceneId) {
+        Integer currentVersion = sceneRepository.findCurrentVersionById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        Optional<SceneVersionCache.Entry<LightSamplingTable>> cached = cache.get(sceneId);
+        if (cached.isPresent() && cached.get().version() == currentVersion) {
+            return cached.get();
+        }
+
+        Scene scene = sceneRepository.findById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        LightSamplingTable table = getLightSamplingTable(scene, SceneAssets.parse(objectMapper, scene.getAssets()));
+        return new SceneVersionCache.Entry<>(scene.getCurrentVersion(), table);
+    }
+
+    /**
+     * For callers that already loaded and parsed the scene.
+     */
+    public LightSamplingTable getLightSamplingTable(Scene scene, SceneAssets assets) {
+        return getLightSamplingTable(scene, assets, meshAssetService::getMeshGeometry);
+    }
+
+    /**
+     * For callers that already looked up the scene's meshes, so the table is built from the same geometry.
+     */
+    public LightSamplingTable getLightSamplingTable(Scene scene, SceneAssets assets,
+                                                   Function<String, Optional<MeshGeometry>> meshes) {
+        Optional<SceneVersionCache.Entry<LightSamplingTable>> cached = cache.get(scene.getId());
+        if (cached.isPresent() && cached.get().version() == scene.getCurrentVersion()) {
+            return cached.get().value();
+        }
+
+        LightSamplingTable table = LightSamplingTable.build(assets, meshes,
+                cached.map(SceneVersionCache.Entry::value).orElse(null));
+
+        // Tables with missing meshes aren't cached, so uploading the asset adds its emissive triangles
+        if (table.missingMeshes().isEmpty()) {
+            cache.put(scene.getId(), scene.getCurrentVersion(), table);
+        }
+        return table;
+    }
+}
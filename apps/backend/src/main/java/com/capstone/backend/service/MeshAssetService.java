@@ -0,0 +1,124 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.render.MeshGeometry;
+import com.capstone.backend.render.MeshStats;
+import com.capstone.backend.render.SerializedMesh;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Geometry, GPU arrays and statistics of the GLB assets the client loads by meshName
+ * Assets are read from scene.cost.assets-location (the frontend's public/assets by default) and parsed once per mesh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MeshAssetService {
+
+    // meshName is user-controlled scene data; never let it leave the assets directory
+    private static final Pattern MESH_NAME = Pattern.compile("[A-Za-z0-9_\\-][A-Za-z0-9_\\-. ]*");
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    @Value("${scene.cost.assets-location:file:../frontend/public/assets/}")
+    private String assetsLocation;
+
+    private final Map<String, MeshGeometry> geometries = new ConcurrentHashMap<>();
+    private final Map<String, MeshStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, SerializedMesh> serializedMeshes = new ConcurrentHashMap<>();
+
+    // The default location is relative to the working directory, so say once where assets are looked up
+    @PostConstruct
+    void checkAssetsLocation() {
+        Resource directory = resourceLoader.getResource(directory());
+        if (directory.exists()) {
+            log.info("Mesh assets are read from {}", describe(directory));
+        } else {
+            log.warn("Mesh assets location {} ({}) doesn't exist: costs, light sampling and world buffers are computed " +
+                    "without mesh geometry; set scene.cost.assets-location", assetsLocation, describe(directory));
+        }
+    }
+
+    /**
+     * @return empty when the asset doesn't exist or can't be parsed (not cached, so added assets are picked up)
+     */
+    public Optional<MeshGeometry> getMeshGeometry(String meshName) {
+        if (meshName == null || !MESH_NAME.matcher(meshName).matches() || meshName.contains("..")) {
+            return Optional.empty();
+        }
+
+        MeshGeometry cached = geometries.get(meshName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<MeshGeometry> loaded = load(meshName);
+        loaded.ifPresent(geometry -> geometries.putIfAbsent(meshName, geometry));
+        return loaded;
+    }
+
+    public Optional<MeshStats> getMeshStats(String meshName) {
+        MeshStats cached = meshName == null ? null : stats.get(meshName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<MeshStats> computed = getMeshGeometry(meshName).map(MeshStats::of);
+        computed.ifPresent(meshStats -> stats.putIfAbsent(meshName, meshStats));
+        return computed;
+    }
+
+    /**
+     * Vertex / index / BLAS / material arrays as the client uploads them (see SerializedMesh)
+     */
+    public Optional<SerializedMesh> getSerializedMesh(String meshName) {
+        SerializedMesh cached = meshName == null ? null : serializedMeshes.get(meshName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<SerializedMesh> computed = getMeshGeometry(meshName).map(SerializedMesh::of);
+        computed.ifPresent(mesh -> serializedMeshes.putIfAbsent(meshName, mesh));
+        return computed;
+    }
+
+    private Optional<MeshGeometry> load(String meshName) {
+        Resource resource = resourceLoader.getResource(directory() + meshName + ".glb");
+        if (!resource.exists()) {
+            return Optional.empty();
+        }
+
+        try (InputStream input = resource.getInputStream()) {
+            return Optional.of(MeshGeometry.parse(objectMapper, input.readAllBytes()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to analyse mesh asset {}: {}", meshName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String directory() {
+        return assetsLocation.endsWith("/") ? assetsLocation : assetsLocation + "/";
+    }
+
+    private static String describe(Resource resource) {
+        try {
+            return resource.getFile().getAbsolutePath();
+        } catch (IOException e) {
+            return resource.getDescription();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.capstone.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Delta encoding for Scene assets (SceneAsset[] keyed by asset id)
+ *
+ * {"put": [changed or added assets], "remove": [removed ids], "order": [ids]}
+ * - apply() keeps surviving assets in place and appends added ones; "order" is only stored when that
+ *   doesn't reproduce the saved order
+ * - empty sections are omitted, so a save that only moves one object stores a single asset
+ */
+@Component
+@RequiredArgsConstructor
+public class SceneAssetsDelta {
+
+    private static final String PUT = "put";
+    private static final String REMOVE = "remove";
+    private static final String ORDER = "order";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return delta turning previousAssets into currentAssets, or empty when either document
+     *         is not an array of objects with unique string ids
+     */
+    public Optional<String> diff(String previousAssets, String currentAssets) {
+        LinkedHashMap<String, JsonNode> previous = indexById(previousAssets);
+        LinkedHashMap<String, JsonNode> current = indexById(currentAssets);
+        if (previous == null || current == null) {
+            return Optional.empty();
+        }
+
+        ObjectNode delta = objectMapper.createObjectNode();
+
+        ArrayNode put = objectMapper.createArrayNode();
+        current.forEach((id, asset) -> {
+            if (!asset.equals(previous.get(id))) put.add(asset);
+        });
+        if (!put.isEmpty()) delta.set(PUT, put);
+
+        ArrayNode remove = objectMapper.createArrayNode();
+        previous.keySet().forEach(id -> {
+            if (!current.containsKey(id)) remove.add(id);
+        });
+        if (!remove.isEmpty()) delta.set(REMOVE, remove);
+
+        // Order produced by apply(): survivors in previous order, then added assets
+        List<String> replayedOrder = new ArrayList<>();
+        previous.keySet().stream().filter(current::containsKey).forEach(replayedOrder::add);
+        current.keySet().stream().filter(id -> !previous.containsKey(id)).forEach(replayedOrder::add);
+
+        if (!replayedOrder.equals(new ArrayList<>(current.keySet()))) {
+            ArrayNode order = delta.putArray(ORDER);
+            current.keySet().forEach(order::add);
+        }
+
+        return Optional.of(delta.toString());
+    }
+
+    public String apply(String baseAssets, String deltaPayload) {
+        LinkedHashMap<String, JsonNode> assets = indexById(baseAssets);
+        if (assets == null) {
+            throw new IllegalStateException("Delta base is not an id-keyed assets array");
+        }
+
+        JsonNode delta = readTree(deltaPayload);
+        if (delta == null) {
+            throw new IllegalStateException("Invalid assets delta");
+        }
+
+        for (JsonNode id : delta.path(REMOVE)) {
+            assets.remove(id.asText());
+        }
+        // Existing keys keep their position in a LinkedHashMap; new ones are appended
+        for (JsonNode asset : delta.path(PUT)) {
+            assets.put(asset.get("id").asText(), asset);
+        }
+
+        ArrayNode result = objectMapper.createArrayNode();
+        if (delta.has(ORDER)) {
+            for (JsonNode id : delta.get(ORDER)) result.add(assets.get(id.asText()));
+        } else {
+            assets.values().forEach(result::add);
+        }
+        return result.toString();
+    }
+
+    private LinkedHashMap<String, JsonNode> indexById(String assetsJson) {
+        JsonNode root = readTree(assetsJson);
+        if (root == null || !root.isArray()) return null;
+
+        LinkedHashMap<String, JsonNode> assets = new LinkedHashMap<>();
+        for (JsonNode asset : root) {
+            JsonNode id = asset.get("id");
+            if (id == null || !id.isTextual() || assets.put(id.asText(), asset) != null) {
+                return null;
+            }
+        }
+        return assets;
+    }
+
+    private JsonNode readTree(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.SceneAutosaveResponse;
+import com.capstone.backend.dto.SceneAutosaveResponse.Durability;
+import com.capstone.backend.dto.SceneRequest;
+import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for editor autosaves
+ * - only the latest autosave per scene is kept; it reaches PostgreSQL through the regular
+ *   SceneService.updateScene (so it also becomes a scene version) on the next flush
+ * - a flush starts scene.autosave.flush-interval-ms after the previous one finished, and runs on explicit commit
+ *   and on shutdown; reads don't write, they see the pending state through withPending
+ * - explicit updates / deletes / restores supersede the autosave pending when they start (see supersedePending)
+ * - pending autosaves are bounded by scene.autosave.max-buffered-bytes; an autosave that would exceed it is
+ *   written through (COMMITTED) instead of buffered
+ *
+ * The buffer is per instance: with several backend nodes, autosaves for a scene must be routed to the same node
+ * (e.g. by hashing the scene id), otherwise reads and explicit writes on another node don't see the pending save.
+ * Deployments that can't route that way set max-buffered-bytes to 0, which writes every autosave through.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SceneAutosaveService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final SceneService sceneService;
+    private final SceneRepository sceneRepository;
+    private final SceneShardRouter sceneShardRouter;
+
+    @Value("${scene.autosave.max-buffered-bytes:33554432}")
+    private long maxBufferedBytes;
+
+    private final Map<Long, PendingSave> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+
+    // Autosaves received vs. database writes they caused, logged on shutdown
+    private final AtomicLong autosaves = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    // Serializes flushes and explicit writes per scene, so an older autosave never lands after a newer write
+    private final Object[] locks = createLocks();
+
+    // The sequence makes every autosave a distinct entry, so remove(id, save) only ever drops that exact save
+    private record PendingSave(SceneRequest request, long sequence, long bytes) {}
+
+    public SceneAutosaveResponse autosave(Long id, SceneRequest request, Durability durability) {
+        PendingSave current = pending.get(id);
+        // Ownership was already checked for the pending save of the same user
+        if (current == null || !current.request().getUsername().equals(request.getUsername())) {
+            verifyOwnership(id, request.getUsername());
+        }
+
+        autosaves.incrementAndGet();
+        PendingSave save = new PendingSave(request, sequence.incrementAndGet(), estimatedBytes(request));
+
+        // An autosave that doesn't fit in the buffer is written through, like an explicit update
+        if (!reserve(save.bytes())) {
+            SceneResponse response = supersedePending(id, () -> sceneService.updateScene(id, request));
+            writes.incrementAndGet();
+            return SceneAutosaveResponse.builder()
+                    .sceneId(id)
+                    .durability(Durability.COMMITTED)
+                    .version(response.getVersion())
+                    .build();
+        }
+
+        PendingSave replaced = pending.put(id, save);
+        if (replaced != null) bufferedBytes.addAndGet(-replaced.bytes());
+
+        if (durability == Durability.COMMITTED) {
+            return commit(id);
+        }
+
+        return SceneAutosaveResponse.builder()
+                .sceneId(id)
+                .durability(Durability.BUFFERED)
+                .build();
+    }
+
+    /**
+     * Read-your-writes without a write: the scene as it will be once its pending autosave is flushed.
+     * version and updatedAt stay those of the last committed save.
+     *
+     * @return whether a pending autosave was applied
+     */
+    public boolean withPending(SceneResponse scene) {
+        PendingSave save = pending.get(scene.getId());
+        if (save == null) return false;
+
+        SceneRequest request = save.request();
+        scene.setName(request.getName());
+        scene.setDescription(request.getDescription());
+        scene.setThumbnailUrl(request.getThumbnailUrl());
+        scene.setAssets(request.getAssets());
+        return true;
+    }
+
+    public boolean hasPending(Long id) {
+        return pending.containsKey(id);
+    }
+
+    long bufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    public SceneAutosaveResponse commit(Long id) {
+        Integer version = flush(id)
+                .map(SceneResponse::getVersion)
+                .orElseGet(() -> sceneShardRouter.inSceneShard(id, true, () -> sceneRepository.findCurrentVersionById(id)
+                        .orElseThrow(() -> new RuntimeException("Scene not found"))));
+
+        return SceneAutosaveResponse.builder()
+                .sceneId(id)
+                .durability(Durability.COMMITTED)
+                .version(version)
+                .build();
+    }
+
+    /**
+     * Writes the pending autosave of a scene, if any.
+     * A save that can never succeed (scene deleted, owner changed) is dropped; database errors keep it for the next flush.
+     */
+    public Optional<SceneResponse> flush(Long id) {
+        synchronized (lockFor(id)) {
+            PendingSave save = pending.get(id);
+            if (save == null) return Optional.empty();
+
+            try {
+                SceneResponse response = sceneService.updateScene(id, save.request());
+                writes.incrementAndGet();
+                drop(id, save);
+                return Optional.of(response);
+            } catch (DataAccessException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                drop(id, save);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs an explicit write (update, delete, restore) and drops the pending autosave it supersedes:
+     * the one pending when the write started. An autosave that arrives while the write runs is newer and is kept.
+     * The pending autosave is also kept if the write fails, e.g. for a non-owner.
+     */
+    public <T> T supersedePending(Long id, Supplier<T> write) {
+        synchronized (lockFor(id)) {
+            PendingSave superseded = pending.get(id);
+            T result = write.get();
+            if (superseded != null) drop(id, superseded);
+            return result;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scene.autosave.flush-interval-ms:5000}")
+    public void flushAll() {
+        for (Long id : pending.keySet()) {
+            try {
+                flush(id);
+            } catch (RuntimeException e) {
+                log.warn("Autosave flush failed for scene {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} pending autosaves before shutdown", pending.size());
+            flushAll();
+        }
+        log.info("{} autosaves caused {} scene writes", autosaves.get(), writes.get());
+    }
+
+    // Until the save it replaces is subtracted, a replacing autosave needs room for both
+    private boolean reserve(long bytes) {
+        long current;
+        do {
+            current = bufferedBytes.get();
+            if (current + bytes > maxBufferedBytes) return false;
+        } while (!bufferedBytes.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    // A replaced save was already subtracted by autosave, so only the save actually removed is
+    private void drop(Long id, PendingSave save) {
+        if (pending.remove(id, save)) {
+            bufferedBytes.addAndGet(-save.bytes());
+        }
+    }
+
+    // Approximate heap size: one byte per character for Latin-1 strings (the common case), two otherwise
+    private static long estimatedBytes(SceneRequest request) {
+        return length(request.getName()) + length(request.getDescription()) + length(request.getThumbnailUrl())
+                + length(request.getAssets()) + length(request.getUsername());
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private void verifyOwnership(Long id, String username) {
+        SceneShardRouter.SceneLocation location = sceneShardRouter.locate(id)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+        if (!location.ownerUsername().equals(username)) {
+            throw new RuntimeException("You don't have permission to update this scene");
+        }
+    }
+
+    private Object lockFor(Long id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+        return locks;
+    }
+}
@@ -0,0 +1,177 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.SceneCostResponse;
+import com.capstone.backend.entity.Scene;
+import com.capstone.backend.render.SceneAssets;
+import com.capstone.backend.render.SceneAssets.LightType;
+import com.capstone.backend.render.SceneCostEstimator;
+import com.capstone.backend.render.SceneCostEstimator.Estimate;
+import com.capstone.backend.render.SceneVersionCache;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scene cost estimates (GPU memory, BVH cost, quality recommendation) per scene version
+ * Recommendations divide scene.cost.frame-budget (BVH operations per frame the target GPU sustains)
+ * by the per-pixel cost: rays per sample (extension + shadow ray per bounce) times the SAH cost per ray.
+ */
+@Service
+@RequiredArgsConstructor
+public class SceneCostService {
+
+    private static final int CACHE_CAPACITY = 1024;
+
+    private static final List<SceneCostResponse.Tier> RESOLUTION_TIERS = List.of(
+            tier("720p", 1280, 720),
+            tier("1080p", 1920, 1080),
+            tier("1440p", 2560, 1440));
+
+    private final SceneRepository sceneRepository;
+    private final SceneShardRouter sceneShardRouter;
+    private final MeshAssetService meshAssetService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${scene.cost.frame-budget:1000000000}")
+    private double frameBudget;
+
+    @Value("${scene.cost.max-bounce:10}")
+    private int maxBounce;
+
+    @Value("${scene.cost.max-samples:16}")
+    private int maxSamples;
+
+    @Value("${scene.cost.max-buffer-binding-bytes:134217728}")
+    private long maxBufferBindingBytes;
+
+    private final SceneVersionCache<SceneCostResponse> cache = new SceneVersionCache<>(CACHE_CAPACITY);
+
+    public SceneVersionCache.Entry<SceneCostResponse> getSceneCost(Long sceneId) {
+        return sceneShardRouter.inSceneShard(sceneId, true, () -> loadSceneCost(sceneId));
+    }
+
+    private SceneVersionCache.Entry<SceneCostResponse> loadSceneCost(Long sceneId) {
+        Integer currentVersion = sceneRepository.findCurrentVersionById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        Optional<SceneVersionCache.Entry<SceneCostResponse>> cached = cache.get(sceneId);
+        if (cached.isPresent() && cached.get().version() == currentVersion) {
+            return cached.get();
+        }
+
+        Scene scene = sceneRepository.findById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        Estimate estimate = SceneCostEstimator.estimate(SceneAssets.parse(objectMapper, scene.getAssets()),
+                meshAssetService::getMeshStats);
+        SceneCostResponse response = toResponse(scene, estimate);
+
+        // Results with missing meshes aren't cached, so uploading the asset fixes the estimate
+        if (estimate.missingMeshes().isEmpty()) {
+            cache.put(sceneId, scene.getCurrentVersion(), response);
+        }
+        return new SceneVersionCache.Entry<>(scene.getCurrentVersion(), response);
+    }
+
+    private SceneCostResponse toResponse(Scene scene, Estimate estimate) {
+        long sceneBufferBytes = estimate.instanceBytes() + estimate.meshDescriptorBytes()
+                + estimate.materialBytes() + estimate.lightBytes();
+        long geometryBufferBytes = estimate.vertexBytes() + estimate.indexBytes() + estimate.subBlasRootBytes();
+        long accelBufferBytes = estimate.tlasBytes() + estimate.blasBytes();
+
+        SceneCostResponse.GpuMemory memory = SceneCostResponse.GpuMemory.builder()
+                .vertexBytes(estimate.vertexBytes())
+                .indexBytes(estimate.indexBytes())
+                .blasBytes(estimate.blasBytes())
+                .tlasBytes(estimate.tlasBytes())
+                .materialBytes(estimate.materialBytes())
+                .textureBytes(estimate.textureBytes())
+                .instanceBytes(estimate.instanceBytes())
+                .lightBytes(estimate.lightBytes())
+                .sceneBufferBytes(sceneBufferBytes)
+                .geometryBufferBytes(geometryBufferBytes)
+                .accelBufferBytes(accelBufferBytes)
+                .totalBytes(sceneBufferBytes + geometryBufferBytes + accelBufferBytes + estimate.textureBytes())
+                .build();
+
+        SceneCostResponse.BvhCost bvh = SceneCostResponse.BvhCost.builder()
+                .tlasNodeCount(estimate.tlas().nodeCount())
+                .blasNodeCount(estimate.blasNodeCount())
+                .sahCost(estimate.sahCost())
+                .maxBlasSahCost(estimate.maxBlasSahCost())
+                .build();
+
+        List<String> warnings = new ArrayList<>();
+        checkBinding(warnings, "Scene", sceneBufferBytes);
+        checkBinding(warnings, "Geometry", geometryBufferBytes);
+        checkBinding(warnings, "Accel", accelBufferBytes);
+        if (!estimate.missingMeshes().isEmpty()) {
+            warnings.add("Mesh assets not found, excluded from the estimate: " + String.join(", ", estimate.missingMeshes()));
+        }
+
+        return SceneCostResponse.builder()
+                .sceneId(scene.getId())
+                .version(scene.getCurrentVersion())
+                .instanceCount(estimate.instanceCount())
+                .meshCount(estimate.meshes().size())
+                .triangleCount(estimate.triangleCount())
+                .uniqueTriangleCount(estimate.uniqueTriangleCount())
+                .lightCount(estimate.lightCounts().values().stream().mapToInt(Integer::intValue).sum())
+                .directionalLightCount(estimate.lightCounts().get(LightType.DIRECTIONAL))
+                .pointLightCount(estimate.lightCounts().get(LightType.POINT))
+                .rectLightCount(estimate.lightCounts().get(LightType.RECT))
+                .missingMeshes(estimate.missingMeshes())
+                .memory(memory)
+                .bvh(bvh)
+                .recommendation(recommend(estimate.sahCost(), warnings))
+                .build();
+    }
+
+    private SceneCostResponse.Recommendation recommend(double sahCost, List<String> warnings) {
+        // An empty scene still costs one root test per ray
+        double costPerSample = 2.0 * maxBounce * Math.max(sahCost, 1.0);
+
+        List<SceneCostResponse.Tier> tiers = new ArrayList<>();
+        SceneCostResponse.Tier recommended = null;
+        for (SceneCostResponse.Tier tier : RESOLUTION_TIERS) {
+            double pixels = (double) tier.getWidth() * tier.getHeight();
+            int samples = (int) Math.min(maxSamples, Math.floor(frameBudget / (pixels * costPerSample)));
+
+            SceneCostResponse.Tier budgeted = tier(tier.getName(), tier.getWidth(), tier.getHeight());
+            budgeted.setSamplesPerPixel(samples);
+            tiers.add(budgeted);
+            if (samples >= 1) recommended = budgeted;
+        }
+
+        if (recommended == null) {
+            recommended = tiers.get(0);
+            warnings.add("Scene exceeds the frame budget even at " + recommended.getName() + " with 1 sample per pixel");
+        }
+
+        return SceneCostResponse.Recommendation.builder()
+                .resolutionTier(recommended.getName())
+                .samplesPerPixel(Math.max(1, recommended.getSamplesPerPixel()))
+                .tiers(tiers)
+                .warnings(warnings)
+                .build();
+    }
+
+    // WebGPU's default maxStorageBufferBindingSize; each of the three buffers is bound whole
+    private void checkBinding(List<String> warnings, String buffer, long bytes) {
+        if (bytes > maxBufferBindingBytes) {
+            warnings.add(buffer + " buffer (" + bytes + " bytes) exceeds the storage buffer binding limit of "
+                    + maxBufferBindingBytes + " bytes");
+        }
+    }
+
+    private static SceneCostResponse.Tier tier(String name, int width, int height) {
+        return SceneCostResponse.Tier.builder().name(name).width(width).height(height).build();
+    }
+}
@@ -1,93 +1,238 @@
 package com.capstone.backend.service;
 
+import com.capstone.backend.dto.ScenePageResponse;
 import com.capstone.backend.dto.SceneRequest;
 import com.capstone.backend.dto.SceneResponse;
 import com.capstone.backend.entity.Scene;
-import com.capstone.backend.entity.User;
+import com.capstone.backend.entity.SceneVersion;
 import com.capstone.backend.repository.SceneRepository;
-import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.SceneRepository.SceneSummary;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Scene CRUD on the owner's shard
+ * Each method is one transaction on one shard: the transaction starts here, and SceneShardRouter picks its shard
+ * before the first statement. Listings and searches scatter to every shard and merge by id (the keyset order).
+ */
 @Service
 @RequiredArgsConstructor
 public class SceneService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MIN_SEARCH_LENGTH = 3; // pg_trgm needs at least one full trigram to use the index
+
     private final SceneRepository sceneRepository;
-    private final UserRepository userRepository;
+    private final SceneShardRouter sceneShardRouter;
+    private final SceneVersionService sceneVersionService;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public SceneResponse createScene(SceneRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Scene scene = Scene.builder()
-                .name(request.getName())
-                .description(request.getDescription())
-                .thumbnailUrl(request.getThumbnailUrl())
-                .assets(request.getAssets())
-                .user(user)
-                .build();
+        return sceneShardRouter.inOwnerShard(request.getUsername(), false, user -> {
+            Scene scene = Scene.builder()
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .thumbnailUrl(request.getThumbnailUrl())
+                    .assets(request.getAssets())
+                    .userId(user.id())
+                    .ownerUsername(user.username())
+                    .build();
 
-        Scene savedScene = sceneRepository.save(scene);
-        return convertToResponse(savedScene);
+            Scene savedScene = sceneRepository.save(scene);
+            sceneVersionService.recordVersion(savedScene, null);
+            return convertToResponse(savedScene);
+        });
     }
 
     @Transactional(readOnly = true)
     public SceneResponse getSceneById(Long id) {
-        Scene scene = sceneRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Scene not found"));
-        return convertToResponse(scene);
+        return sceneShardRouter.inSceneShard(id, true, () -> {
+            Scene scene = sceneRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Scene not found"));
+            return convertToResponse(scene);
+        });
     }
 
     @Transactional(readOnly = true)
     public List<SceneResponse> getAllScenes() {
-        return sceneRepository.findAll().stream()
+        return gatherScenes(sceneRepository::findAll, Scene::getId, Scene::getUserId).stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<SceneResponse> getScenesByUsername(String username) {
-        return sceneRepository.findByUserUsername(username).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        if (sceneShardRouter.findUser(username).isEmpty()) {
+            return List.of();
+        }
+        return sceneShardRouter.inOwnerShard(username, true, user ->
+                sceneRepository.findByUserId(user.id()).stream()
+                        .map(this::convertToResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public ScenePageResponse searchScenes(String query, Long cursor, Integer limit) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.length() < MIN_SEARCH_LENGTH) {
+            throw new RuntimeException("Search query must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+
+        String pattern = "%" + escapeLikePattern(trimmed) + "%";
+        int pageSize = resolvePageSize(limit);
+        long resolvedCursor = resolveCursor(cursor);
+        return toPage(gatherSummaries(() -> sceneRepository.searchByText(pattern, resolvedCursor, pageSize)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public ScenePageResponse findScenesContainingMesh(String meshName, Long cursor, Integer limit) {
+        if (meshName == null || meshName.isBlank()) {
+            throw new RuntimeException("Mesh name is required");
+        }
+
+        // [{"meshName": "..."}] matches every assets array holding at least one instance of the mesh
+        ArrayNode containment = objectMapper.createArrayNode();
+        containment.addObject().put("meshName", meshName);
+
+        String pattern = containment.toString();
+        int pageSize = resolvePageSize(limit);
+        long resolvedCursor = resolveCursor(cursor);
+        return toPage(gatherSummaries(() -> sceneRepository.findByAssetsContaining(pattern, resolvedCursor, pageSize)), pageSize);
     }
 
     @Transactional
     public SceneResponse updateScene(Long id, SceneRequest request) {
-        Scene scene = sceneRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Scene not found"));
+        return sceneShardRouter.inSceneShard(id, false, () -> {
+            Scene scene = sceneRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Scene not found"));
 
-        // Verify user ownership
-        if (!scene.getUser().getUsername().equals(request.getUsername())) {
-            throw new RuntimeException("You don't have permission to update this scene");
-        }
+            // Verify user ownership
+            if (!scene.getOwnerUsername().equals(request.getUsername())) {
+                throw new RuntimeException("You don't have permission to update this scene");
+            }
+
+            String previousAssets = scene.getAssets();
+
+            scene.setName(request.getName());
+            scene.setDescription(request.getDescription());
+            scene.setThumbnailUrl(request.getThumbnailUrl());
+            scene.setAssets(request.getAssets());
+
+            Scene updatedScene = sceneRepository.save(scene);
+            sceneVersionService.recordVersion(updatedScene, previousAssets);
+            return convertToResponse(updatedScene);
+        });
+    }
+
+    @Transactional
+    public SceneResponse restoreSceneVersion(Long id, Integer version, String username) {
+        return sceneShardRouter.inSceneShard(id, false, () -> {
+            Scene scene = sceneRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+            // Verify user ownership
+            if (!scene.getOwnerUsername().equals(username)) {
+                throw new RuntimeException("You don't have permission to restore this scene");
+            }
+
+            SceneVersion target = sceneVersionService.findVersion(id, version);
+            String previousAssets = scene.getAssets();
 
-        scene.setName(request.getName());
-        scene.setDescription(request.getDescription());
-        scene.setThumbnailUrl(request.getThumbnailUrl());
-        scene.setAssets(request.getAssets());
+            // Restoring is a new save, so the restored state gets its own version
+            scene.setName(target.getName());
+            scene.setDescription(target.getDescription());
+            scene.setThumbnailUrl(target.getThumbnailUrl());
+            scene.setAssets(sceneVersionService.materializeAssets(id, version));
 
-        Scene updatedScene = sceneRepository.save(scene);
-        return convertToResponse(updatedScene);
+            Scene restoredScene = sceneRepository.save(scene);
+            sceneVersionService.recordVersion(restoredScene, previousAssets);
+            return convertToResponse(restoredScene);
+        });
     }
 
     @Transactional
     public void deleteScene(Long id, String username) {
-        Scene scene = sceneRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Scene not found"));
+        sceneShardRouter.inSceneShard(id, false, () -> {
+            Scene scene = sceneRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Scene not found"));
 
-        // Verify user ownership
-        if (!scene.getUser().getUsername().equals(username)) {
-            throw new RuntimeException("You don't have permission to delete this scene");
+            // Verify user ownership
+            if (!scene.getOwnerUsername().equals(username)) {
+                throw new RuntimeException("You don't have permission to delete this scene");
+            }
+
+            // An entry in scene_shard_overrides may outlive the scene; lookups through it find no scene either
+            sceneRepository.delete(scene);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a query on every shard and merges the results newest first.
+     * Each shard applies the same cursor and limit, so the merged head is the global page.
+     */
+    private <T> List<T> gatherScenes(Supplier<List<T>> query, Function<T, Long> id, Function<T, Long> userId) {
+        List<List<T>> perShard = sceneShardRouter.inAllShards(true, shard -> query.get());
+
+        List<T> merged = new ArrayList<>();
+        if (perShard.size() == 1) {
+            merged.addAll(perShard.get(0));
+        } else {
+            // Only rows on their owner's shard count; the others are a copy left by a running or failed move
+            Map<Long, Integer> ownerShards = sceneShardRouter.ownerShards(perShard.stream()
+                    .flatMap(List::stream)
+                    .map(userId)
+                    .collect(Collectors.toSet()));
+            for (int shard = 0; shard < perShard.size(); shard++) {
+                for (T scene : perShard.get(shard)) {
+                    if (Integer.valueOf(shard).equals(ownerShards.get(userId.apply(scene)))) {
+                        merged.add(scene);
+                    }
+                }
+            }
         }
+        merged.sort(Comparator.comparing(id).reversed());
+        return merged;
+    }
+
+    private List<SceneSummary> gatherSummaries(Supplier<List<SceneSummary>> query) {
+        return gatherScenes(query, SceneSummary::getId, SceneSummary::getUserId);
+    }
+
+    private ScenePageResponse toPage(List<SceneSummary> merged, int pageSize) {
+        List<SceneSummary> scenes = merged.subList(0, Math.min(merged.size(), pageSize));
+        Long nextCursor = scenes.size() < pageSize ? null : scenes.get(scenes.size() - 1).getId();
+        return ScenePageResponse.builder()
+                .scenes(scenes.stream().map(this::convertToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static long resolveCursor(Long cursor) {
+        return cursor == null ? Long.MAX_VALUE : cursor;
+    }
 
-        sceneRepository.delete(scene);
+    private static int resolvePageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     private SceneResponse convertToResponse(Scene scene) {
@@ -97,7 +242,22 @@ public class SceneService {
                 .description(scene.getDescription())
                 .thumbnailUrl(scene.getThumbnailUrl())
                 .assets(scene.getAssets())
-                .username(scene.getUser().getUsername())
+                .username(scene.getOwnerUsername())
+                .version(scene.getCurrentVersion())
+                .createdAt(scene.getCreatedAt())
+                .updatedAt(scene.getUpdatedAt())
+                .build();
+    }
+
+    // Search results carry no assets; clients load the scene itself when opening it
+    private SceneResponse convertToResponse(SceneSummary scene) {
+        return SceneResponse.builder()
+                .id(scene.getId())
+                .name(scene.getName())
+                .description(scene.getDescription())
+                .thumbnailUrl(scene.getThumbnailUrl())
+                .username(scene.getOwnerUsername())
+                .version(scene.getCurrentVersion())
                 .createdAt(scene.getCreatedAt())
                 .updatedAt(scene.getUpdatedAt())
                 .build();
@@ -0,0 +1,240 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.ShardMoveResponse;
+import com.capstone.backend.dto.ShardStatusResponse;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.capstone.backend.repository.shard.SceneShardRouter.ShardUser;
+import com.capstone.backend.repository.shard.ShardLocks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Moves a user's scenes (with their version history) to another shard while the user keeps working
+ * 1. copy passes: scenes changed since the previous pass are copied to the target, writes still go to the source
+ * 2. switch-over under the user's scene lock on the source (ShardLocks): a last catch-up pass, users.shard flipped
+ *    to the target. Only this step briefly blocks the user's requests, on every instance.
+ * 3. the source rows are deleted
+ * Scene ids are kept, so links and clients are unaffected. The move state is kept in the users row (shard 0):
+ * users.stale_shard marks the copy reads ignore, also when a move is cut short - the next move of the user removes it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SceneShardRebalancer {
+
+    private static final int MAX_COPY_PASSES = 5;
+
+    private static final String SELECT_SCENE = "SELECT id, name, description, thumbnail_url, assets::text AS assets, " +
+            "user_id, owner_username, current_version, created_at, updated_at FROM scenes WHERE id = ?";
+
+    private static final String UPSERT_SCENE = "INSERT INTO scenes (id, name, description, thumbnail_url, assets, " +
+            "user_id, owner_username, current_version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, " +
+            "thumbnail_url = EXCLUDED.thumbnail_url, assets = EXCLUDED.assets, " +
+            "current_version = EXCLUDED.current_version, updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT_VERSIONS = "SELECT version, kind, name, description, thumbnail_url, " +
+            "payload::text AS payload, created_at FROM scene_versions WHERE scene_id = ? ORDER BY version";
+
+    private static final String INSERT_VERSION = "INSERT INTO scene_versions (scene_id, version, kind, name, " +
+            "description, thumbnail_url, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+
+    private final SceneShardRouter sceneShardRouter;
+    private final ShardLocks shardLocks;
+    private final JdbcTemplate jdbcTemplate; // on the routing DataSource, joins the router's shard transactions
+
+    private record SceneState(int version, Timestamp updatedAt) {}
+
+    public List<ShardStatusResponse> getShardStatus() {
+        Map<Integer, Long> usersPerShard = new HashMap<>();
+        sceneShardRouter.inShard(0, true, () -> {
+            jdbcTemplate.query("SELECT shard, COUNT(*) FROM users GROUP BY shard",
+                    (RowCallbackHandler) rs -> usersPerShard.put(rs.getInt(1), rs.getLong(2)));
+            return null;
+        });
+
+        List<Long> scenesPerShard = sceneShardRouter.inAllShards(true,
+                shard -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scenes", Long.class));
+
+        List<ShardStatusResponse> status = new ArrayList<>();
+        for (int shard = 0; shard < scenesPerShard.size(); shard++) {
+            status.add(ShardStatusResponse.builder()
+                    .shard(shard)
+                    .users(usersPerShard.getOrDefault(shard, 0L))
+                    .scenes(scenesPerShard.get(shard))
+                    .build());
+        }
+        return status;
+    }
+
+    public ShardMoveResponse moveUser(String username, int targetShard) {
+        if (targetShard < 0 || targetShard >= sceneShardRouter.shardCount()) {
+            throw new RuntimeException("Unknown shard: " + targetShard);
+        }
+
+        ShardUser user = sceneShardRouter.findUser(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return shardLocks.whileMoving(user.id(), () -> move(user.id(), username, targetShard))
+                .orElseThrow(() -> new RuntimeException("User is already being moved"));
+    }
+
+    // Under the user's move lock: no other instance moves the user meanwhile
+    private ShardMoveResponse move(Long userId, String username, int targetShard) {
+        ShardUser user = sceneShardRouter.findUser(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        int sourceShard = user.shard();
+
+        if (user.staleShard() != null) {
+            // Left behind by a move whose instance died; never read, so it can go before moving again
+            log.warn("Removing the leftover copy of user {} on shard {}", username, user.staleShard());
+            discardCopy(userId, user.staleShard());
+        }
+        if (sourceShard == targetShard) {
+            return buildResponse(username, sourceShard, targetShard, 0, 0);
+        }
+        if (!sceneShardRouter.beginMove(userId, sourceShard, targetShard)) {
+            throw new RuntimeException("User was changed by another move, please retry");
+        }
+
+        int passes = 0;
+        List<Long> sceneIds;
+        try {
+            // Online copy; stops early once a pass finds nothing new
+            int copied;
+            do {
+                copied = copyPass(userId, sourceShard, targetShard);
+                passes++;
+            } while (copied > 0 && passes < MAX_COPY_PASSES);
+
+            // Requests on the source finish first, later ones wait and then follow users.shard to the target
+            sceneIds = shardLocks.whileScenesLocked(userId, sourceShard, () -> {
+                copyPass(userId, sourceShard, targetShard);
+
+                List<Long> moved = sceneShardRouter.inShard(targetShard, true, () -> jdbcTemplate.queryForList(
+                        "SELECT id FROM scenes WHERE user_id = ?", Long.class, userId));
+                sceneShardRouter.switchMove(userId, sourceShard, targetShard, moved);
+                return moved;
+            });
+            passes++;
+        } catch (RuntimeException e) {
+            try {
+                discardCopy(userId, targetShard);
+            } catch (RuntimeException cleanup) {
+                // Stays marked in users.stale_shard, the next move of the user removes it
+                log.error("Discarding the partial copy of user {} on shard {} failed", username, targetShard, cleanup);
+            }
+            throw e;
+        }
+
+        try {
+            discardCopy(userId, sourceShard);
+        } catch (RuntimeException e) {
+            // The move itself succeeded; the source rows stay marked and are removed by the next move
+            log.error("Moved user {} to shard {}, but deleting the copy on shard {} failed", username, targetShard, sourceShard, e);
+        }
+
+        log.info("Moved user {} ({} scenes) from shard {} to shard {} in {} passes",
+                username, sceneIds.size(), sourceShard, targetShard, passes);
+        return buildResponse(username, sourceShard, targetShard, sceneIds.size(), passes);
+    }
+
+    /**
+     * Brings the target up to date with the source.
+     * @return number of scenes copied or removed
+     */
+    private int copyPass(Long userId, int sourceShard, int targetShard) {
+        Map<Long, SceneState> source = sceneStates(userId, sourceShard);
+        Map<Long, SceneState> target = sceneStates(userId, targetShard);
+
+        int changed = 0;
+        for (Map.Entry<Long, SceneState> scene : source.entrySet()) {
+            if (!Objects.equals(scene.getValue(), target.get(scene.getKey()))) {
+                copyScene(scene.getKey(), sourceShard, targetShard);
+                changed++;
+            }
+        }
+        for (Long sceneId : target.keySet()) {
+            if (!source.containsKey(sceneId)) {
+                // Deleted on the source since an earlier pass
+                sceneShardRouter.inShard(targetShard, false, () -> jdbcTemplate.update("DELETE FROM scenes WHERE id = ?", sceneId));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private Map<Long, SceneState> sceneStates(Long userId, int shard) {
+        Map<Long, SceneState> states = new HashMap<>();
+        sceneShardRouter.inShard(shard, true, () -> {
+            jdbcTemplate.query("SELECT id, current_version, updated_at FROM scenes WHERE user_id = ?",
+                    (RowCallbackHandler) rs -> states.put(rs.getLong(1), new SceneState(rs.getInt(2), rs.getTimestamp(3))),
+                    userId);
+            return null;
+        });
+        return states;
+    }
+
+    private void copyScene(Long sceneId, int sourceShard, int targetShard) {
+        // Scene row and its history are read in one transaction, so they are consistent with each other
+        List<Map<String, Object>> scene = new ArrayList<>();
+        List<Map<String, Object>> versions = new ArrayList<>();
+        sceneShardRouter.inShard(sourceShard, true, () -> {
+            scene.addAll(jdbcTemplate.queryForList(SELECT_SCENE, sceneId));
+            versions.addAll(jdbcTemplate.queryForList(SELECT_VERSIONS, sceneId));
+            return null;
+        });
+        if (scene.isEmpty()) return; // deleted meanwhile, the next pass removes it from the target
+
+        Map<String, Object> row = scene.get(0);
+        sceneShardRouter.inShard(targetShard, false, () -> {
+            jdbcTemplate.update(UPSERT_SCENE,
+                    row.get("id"), row.get("name"), row.get("description"), row.get("thumbnail_url"), row.get("assets"),
+                    row.get("user_id"), row.get("owner_username"), row.get("current_version"),
+                    row.get("created_at"), row.get("updated_at"));
+
+            jdbcTemplate.update("DELETE FROM scene_versions WHERE scene_id = ?", sceneId);
+            jdbcTemplate.batchUpdate(INSERT_VERSION, versions.stream()
+                    .map(version -> new Object[]{
+                            sceneId, version.get("version"), version.get("kind"), version.get("name"),
+                            version.get("description"), version.get("thumbnail_url"), version.get("payload"),
+                            version.get("created_at")})
+                    .toList());
+            return null;
+        });
+    }
+
+    /**
+     * Deletes the user's rows on a shard that isn't theirs (scene_versions go with them, ON DELETE CASCADE)
+     * and clears the stale copy marker.
+     */
+    private void discardCopy(Long userId, int shard) {
+        ShardUser user = sceneShardRouter.findUser(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.shard() == shard) {
+            throw new IllegalStateException("Shard " + shard + " holds the scenes of user " + user.username());
+        }
+        sceneShardRouter.inShard(shard, false, () -> jdbcTemplate.update("DELETE FROM scenes WHERE user_id = ?", userId));
+        sceneShardRouter.endMove(userId);
+    }
+
+    private ShardMoveResponse buildResponse(String username, int sourceShard, int targetShard, int movedScenes, int passes) {
+        return ShardMoveResponse.builder()
+                .username(username)
+                .sourceShard(sourceShard)
+                .targetShard(targetShard)
+                .movedScenes(movedScenes)
+                .copyPasses(passes)
+                .build();
+    }
+}
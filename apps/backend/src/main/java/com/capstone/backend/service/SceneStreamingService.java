@@ -0,0 +1,97 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streaming read path for GET /scenes/{id} (JSON)
+ * Writes the same document as SceneResponse, but the assets column goes from the JDBC row
+ * to the response as a byte stream: no String, Scene or SceneResponse copy of a multi-megabyte document.
+ *
+ * The response is written from the open result set, inside the scene's read-only transaction; the output is only
+ * opened once the row was found, so a missing scene is still a 404. A slow client keeps the connection (and the
+ * owner's shared scene lock, see SceneShardRouter) for as long as the document takes to write.
+ */
+@Service
+@RequiredArgsConstructor
+public class SceneStreamingService {
+
+    private static final String SELECT_SCENE = "SELECT id, name, description, thumbnail_url, assets, " +
+            "owner_username, current_version, created_at, updated_at FROM scenes WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SceneShardRouter sceneShardRouter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Response body, opened after the scene was found (the caller sets status and headers there).
+     */
+    @FunctionalInterface
+    public interface SceneOutput {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * @throws RuntimeException "Scene not found" before the output is opened
+     */
+    public void streamScene(Long id, SceneOutput output) {
+        Boolean found = sceneShardRouter.inSceneShard(id, true, () -> jdbcTemplate.query(SELECT_SCENE, rs -> {
+            if (!rs.next()) return false;
+            try {
+                writeScene(rs, output.open());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }, id));
+        if (!Boolean.TRUE.equals(found)) {
+            throw new RuntimeException("Scene not found");
+        }
+    }
+
+    private void writeScene(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            // Same fields and order as SceneResponse
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("name", rs.getString("name"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeStringField("thumbnailUrl", rs.getString("thumbnail_url"));
+
+            // assets stays a JSON string; the generator escapes it chunk by chunk while reading the column
+            generator.writeFieldName("assets");
+            try (Reader reader = new InputStreamReader(rs.getBinaryStream("assets"), StandardCharsets.UTF_8)) {
+                generator.writeString(reader, -1);
+            }
+
+            generator.writeStringField("username", rs.getString("owner_username"));
+            generator.writeNumberField("version", rs.getInt("current_version"));
+            writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+            writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, String field, Timestamp timestamp) throws IOException {
+        generator.writeFieldName(field);
+        // Through the ObjectMapper, so LocalDateTime is formatted exactly as in SceneResponse
+        generator.writeObject(timestamp == null ? null : timestamp.toLocalDateTime());
+    }
+}
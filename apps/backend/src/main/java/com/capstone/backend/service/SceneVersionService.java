@@ -0,0 +1,197 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.dto.SceneVersionSummary;
+import com.capstone.backend.entity.Scene;
+import com.capstone.backend.entity.SceneVersion;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.SceneVersionRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Scene version history
+ * - every save becomes a version; a full SNAPSHOT is stored every snapshot-interval versions
+ *   and SceneAssetsDelta deltas in between
+ * - any version is rebuilt by replaying deltas on top of the closest preceding snapshot
+ * - retention keeps at most max-versions versions / max-bytes stored payload per scene;
+ *   the oldest kept version is rewritten as a snapshot so replay never needs pruned rows.
+ *   It runs every retention-interval versions, so a scene may briefly hold that many versions over the caps
+ */
+@Service
+@RequiredArgsConstructor
+public class SceneVersionService {
+
+    private final SceneRepository sceneRepository;
+    private final SceneVersionRepository sceneVersionRepository;
+    private final SceneAssetsDelta sceneAssetsDelta;
+    private final SceneShardRouter sceneShardRouter;
+
+    @Value("${scene.history.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    @Value("${scene.history.max-versions:100}")
+    private int maxVersions;
+
+    @Value("${scene.history.max-bytes:52428800}")
+    private long maxBytes;
+
+    @Value("${scene.history.retention-interval:10}")
+    private int retentionInterval;
+
+    /**
+     * Records the scene's current state as its next version.
+     * @param previousAssets assets before this save, or null for a newly created scene
+     */
+    @Transactional
+    public void recordVersion(Scene scene, String previousAssets) {
+        int version = scene.getCurrentVersion() + 1;
+
+        SceneVersion.Kind kind = SceneVersion.Kind.SNAPSHOT;
+        String payload = scene.getAssets();
+
+        if (previousAssets != null && !isSnapshotDue(scene.getId(), version)) {
+            Optional<String> delta = sceneAssetsDelta.diff(previousAssets, scene.getAssets());
+            // A delta that isn't smaller than the document (e.g. a full rewrite) is stored as a snapshot
+            if (delta.isPresent() && delta.get().length() < payload.length()) {
+                kind = SceneVersion.Kind.DELTA;
+                payload = delta.get();
+            }
+        }
+
+        sceneVersionRepository.save(SceneVersion.builder()
+                .scene(scene)
+                .version(version)
+                .kind(kind)
+                .name(scene.getName())
+                .description(scene.getDescription())
+                .thumbnailUrl(scene.getThumbnailUrl())
+                .payload(payload)
+                .build());
+
+        scene.setCurrentVersion(version);
+        // Batched: the size and retention queries aren't paid on every save
+        if (version % retentionInterval == 0) {
+            applyRetention(scene.getId(), version);
+        }
+    }
+
+    public List<SceneVersionSummary> getVersions(Long sceneId) {
+        // Versions live on the scene's shard; locating the scene also checks that it exists
+        return sceneShardRouter.inSceneShard(sceneId, true, () -> sceneVersionRepository.findSummariesBySceneId(sceneId));
+    }
+
+    public SceneResponse getVersion(Long sceneId, Integer version) {
+        return sceneShardRouter.inSceneShard(sceneId, true, () -> {
+            Scene scene = sceneRepository.findById(sceneId)
+                    .orElseThrow(() -> new RuntimeException("Scene not found"));
+            SceneVersion sceneVersion = findVersion(sceneId, version);
+
+            return SceneResponse.builder()
+                    .id(scene.getId())
+                    .name(sceneVersion.getName())
+                    .description(sceneVersion.getDescription())
+                    .thumbnailUrl(sceneVersion.getThumbnailUrl())
+                    .assets(materializeAssets(sceneId, version))
+                    .username(scene.getOwnerUsername())
+                    .version(sceneVersion.getVersion())
+                    .createdAt(scene.getCreatedAt())
+                    .updatedAt(sceneVersion.getCreatedAt())
+                    .build();
+        });
+    }
+
+    /**
+     * The methods below run inside a transaction already bound to the scene's shard (see SceneService).
+     */
+    @Transactional(readOnly = true)
+    public SceneVersion findVersion(Long sceneId, Integer version) {
+        return sceneVersionRepository.findBySceneIdAndVersion(sceneId, version)
+                .orElseThrow(() -> new RuntimeException("Scene version not found"));
+    }
+
+    /**
+     * Rebuilds the assets document of a version from the closest snapshot at or before it.
+     */
+    @Transactional(readOnly = true)
+    public String materializeAssets(Long sceneId, int version) {
+        SceneVersion snapshot = sceneVersionRepository
+                .findTopBySceneIdAndKindAndVersionLessThanEqualOrderByVersionDesc(sceneId, SceneVersion.Kind.SNAPSHOT, version)
+                .orElseThrow(() -> new RuntimeException("Scene version not found"));
+
+        String assets = snapshot.getPayload();
+        if (snapshot.getVersion() < version) {
+            List<SceneVersion> deltas = sceneVersionRepository
+                    .findBySceneIdAndVersionBetweenOrderByVersionAsc(sceneId, snapshot.getVersion() + 1, version);
+            for (SceneVersion delta : deltas) {
+                assets = sceneAssetsDelta.apply(assets, delta.getPayload());
+            }
+        }
+        return assets;
+    }
+
+    private boolean isSnapshotDue(Long sceneId, int version) {
+        // No snapshot yet: the scene predates version history, so there is nothing to diff against
+        return sceneVersionRepository
+                .findTopBySceneIdAndKindAndVersionLessThanEqualOrderByVersionDesc(sceneId, SceneVersion.Kind.SNAPSHOT, version - 1)
+                .map(snapshot -> version - snapshot.getVersion() >= snapshotInterval)
+                .orElse(true);
+    }
+
+    private void applyRetention(Long sceneId, int latestVersion) {
+        List<Object[]> payloadSizes = sceneVersionRepository.findPayloadSizesBySceneId(sceneId);
+        if (payloadSizes.isEmpty()) return;
+
+        int keepFrom = Math.max(1, latestVersion - maxVersions + 1);
+
+        // Newest first: stop at the first version that would push the history over max-bytes
+        long storedBytes = 0;
+        Map<Integer, Long> sizes = new HashMap<>();
+        for (Object[] row : payloadSizes) {
+            int version = ((Number) row[0]).intValue();
+            long size = ((Number) row[1]).longValue();
+            sizes.put(version, size);
+            storedBytes += size;
+            if (storedBytes > maxBytes && version < latestVersion) {
+                keepFrom = Math.max(keepFrom, version + 1);
+                break;
+            }
+        }
+
+        int oldestVersion = ((Number) payloadSizes.get(payloadSizes.size() - 1)[0]).intValue();
+        if (keepFrom <= oldestVersion) return;
+
+        SceneVersion newBase = findVersion(sceneId, keepFrom);
+        if (newBase.getKind() == SceneVersion.Kind.DELTA) {
+            String assets = materializeAssets(sceneId, keepFrom);
+            long newerBytes = 0;
+            for (int version = keepFrom + 1; version <= latestVersion; version++) {
+                newerBytes += sizes.getOrDefault(version, 0L);
+            }
+
+            // The snapshot is larger than the delta it replaces: keep dropping versions until the history fits
+            // with it. A kept snapshot needs no rewrite, and the versions from it on already fit (see above)
+            while (keepFrom < latestVersion && newerBytes + sceneVersionRepository.findJsonbSize(assets) > maxBytes) {
+                keepFrom++;
+                newerBytes -= sizes.getOrDefault(keepFrom, 0L);
+                newBase = findVersion(sceneId, keepFrom);
+                if (newBase.getKind() == SceneVersion.Kind.SNAPSHOT) break;
+                assets = sceneAssetsDelta.apply(assets, newBase.getPayload());
+            }
+
+            if (newBase.getKind() == SceneVersion.Kind.DELTA) {
+                newBase.setPayload(assets);
+                newBase.setKind(SceneVersion.Kind.SNAPSHOT);
+            }
+        }
+        sceneVersionRepository.deleteOlderThan(sceneId, keepFrom);
+    }
+}
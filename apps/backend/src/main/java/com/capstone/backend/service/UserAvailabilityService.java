@@ -0,0 +1,206 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.UserRepository.UserIdentity;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Username / email availability checks backed by in-memory Bloom filters
+ * - "not in the filter" means the name is free without touching the database; "maybe" falls back to an exists query
+ * - filters are built from UserRepository (users live on shard 0) when the application is ready, updated on signup,
+ *   and rebuilt every auth.availability.rebuild-interval-ms, resized for the current user count
+ * - until the first build finishes every check goes to the database
+ *
+ * Filters are per instance: signups on another node are only seen after the next rebuild (until then such a name
+ * may be reported as available, and the signup itself still fails on the unique constraint).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAvailabilityService {
+
+    private final UserRepository userRepository;
+    private final SceneShardRouter sceneShardRouter;
+
+    @Value("${auth.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters filters;
+    // Set while a rebuild reads the users table, so signups committed meanwhile reach the new filters too
+    private volatile Filters rebuilding;
+
+    private final AtomicLong filterHits = new AtomicLong();
+    private final AtomicLong databaseChecks = new AtomicLong();
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        Filters(long expected, double falsePositiveRate) {
+            this(new BloomFilter(expected, falsePositiveRate), new BloomFilter(expected, falsePositiveRate));
+        }
+
+        void add(String username, String email) {
+            usernames.add(username);
+            emails.add(email);
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        Filters current = filters;
+        if (current != null && !current.usernames().mightContain(username)) {
+            filterHits.incrementAndGet();
+            return true;
+        }
+        databaseChecks.incrementAndGet();
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Filters current = filters;
+        if (current != null && !current.emails().mightContain(email)) {
+            filterHits.incrementAndGet();
+            return true;
+        }
+        databaseChecks.incrementAndGet();
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Records a committed signup.
+     */
+    public void registered(String username, String email) {
+        // rebuilding before filters: rebuild() publishes filters before clearing rebuilding, so a signup that finds
+        // rebuilding already cleared finds the new filters published, and one that ran before rebuilding was set
+        // committed before the rebuild started reading
+        Filters next = rebuilding;
+        if (next != null) next.add(username, email);
+
+        Filters current = filters;
+        if (current != null && current != next) current.add(username, email);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${auth.availability.rebuild-interval-ms:600000}",
+            fixedDelayString = "${auth.availability.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long users = userRepository.count();
+        // Sized with headroom so signups until the next rebuild keep the false positive rate
+        Filters next = new Filters(Math.max(expectedUsers, users * 2), falsePositiveRate);
+
+        rebuilding = next;
+        try {
+            long loaded = sceneShardRouter.inShard(0, true, () -> {
+                long[] count = {0};
+                try (Stream<UserIdentity> identities = userRepository.streamIdentities()) {
+                    identities.forEach(identity -> {
+                        next.add(identity.getUsername(), identity.getEmail());
+                        count[0]++;
+                    });
+                }
+                return count[0];
+            });
+            filters = next;
+
+            log.info("Availability filters built from {} users in {} ms ({} bits each; {} checks answered in memory, {} by the database)",
+                    loaded, (System.nanoTime() - start) / 1_000_000, next.usernames().bitCount(),
+                    filterHits.getAndSet(0), databaseChecks.getAndSet(0));
+        } catch (RuntimeException e) {
+            // Keep the previous filters; checks stay correct through the database fallback
+            log.warn("Failed to build availability filters: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over strings (bits in an AtomicLongArray, k indexes by double hashing).
+     */
+    static final class BloomFilter {
+
+        private static final long MAX_WORDS = 1L << 25;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            // m = -n ln p / (ln 2)^2, k = m / n ln 2
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            // Indexes are derived from 32-bit hashes, so at most 2^31 bits (256 MB)
+            int wordCount = (int) Math.min(MAX_WORDS, Math.max(1, (bits + 63) / 64));
+
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        long bitCount() {
+            return bitCount;
+        }
+
+        void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, current, current | mask)) break;
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        private long index(int combined) {
+            // Flip negative combinations like Guava's MURMUR128_MITZ_32
+            return (combined < 0 ? ~combined : combined) % bitCount;
+        }
+
+        // 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.entity.Scene;
+import com.capstone.backend.render.LightSamplingTable;
+import com.capstone.backend.render.MeshGeometry;
+import com.capstone.backend.render.SceneAssets;
+import com.capstone.backend.render.SceneVersionCache;
+import com.capstone.backend.render.WorldBufferPacker;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pre-packed world buffers (see WorldBufferPacker), built once per scene version
+ * Buffers with a missing mesh asset are not cached, so the mesh is packed once its GLB appears.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorldBufferService {
+
+    private static final int CACHE_CAPACITY = 256;
+
+    private final SceneRepository sceneRepository;
+    private final SceneShardRouter sceneShardRouter;
+    private final LightSamplingService lightSamplingService;
+    private final MeshAssetService meshAssetService;
+    private final ObjectMapper objectMapper;
+
+    private final SceneVersionCache<byte[]> cache = new SceneVersionCache<>(CACHE_CAPACITY);
+
+    public SceneVersionCache.Entry<byte[]> getWorldBuffer(Long sceneId) {
+        return sceneShardRouter.inSceneShard(sceneId, true, () -> loadWorldBuffer(sceneId));
+    }
+
+    private SceneVersionCache.Entry<byte[]> loadWorldBuffer(Long sceneId) {
+        Integer currentVersion = sceneRepository.findCurrentVersionById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        Optional<SceneVersionCache.Entry<byte[]>> cached = cache.get(sceneId);
+        if (cached.isPresent() && cached.get().version() == currentVersion) {
+            return cached.get();
+        }
+
+        Scene scene = sceneRepository.findById(sceneId)
+                .orElseThrow(() -> new RuntimeException("Scene not found"));
+
+        SceneAssets assets = SceneAssets.parse(objectMapper, scene.getAssets());
+
+        // Each mesh is looked up once, so the light table and the packed meshes see the same assets
+        Map<String, Optional<MeshGeometry>> geometries = new HashMap<>();
+        for (SceneAssets.ObjectAsset object : assets.objects()) {
+            geometries.computeIfAbsent(object.meshName(), meshAssetService::getMeshGeometry);
+        }
+        boolean complete = geometries.values().stream().allMatch(Optional::isPresent);
+
+        // A partial load bypasses the light table cache, whose table may have the missing meshes' emitters
+        LightSamplingTable lightSamplingTable = complete
+                ? lightSamplingService.getLightSamplingTable(scene, assets, geometries::get)
+                : LightSamplingTable.build(assets, geometries::get, null);
+        byte[] worldBuffer = WorldBufferPacker.pack(assets, lightSamplingTable,
+                name -> geometries.get(name).flatMap(geometry -> meshAssetService.getSerializedMesh(name)),
+                scene.getCurrentVersion());
+
+        // A mesh asset added later changes the buffer without a new scene version
+        if (complete) {
+            cache.put(sceneId, scene.getCurrentVersion(), worldBuffer);
+        }
+        return new SceneVersionCache.Entry<>(scene.getCurrentVersion(), worldBuffer);
+    }
+}
@@ -0,0 +1,28 @@
+-- Initial schema (matches the entities previously created by ddl-auto: update)
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate)
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    nickname    VARCHAR(50)  NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE scenes (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(100) NOT NULL,
+    description     VARCHAR(500),
+    thumbnail_url   VARCHAR(255),
+    assets          JSONB        NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_scenes_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_scenes_user_id ON scenes (user_id);
@@ -0,0 +1,15 @@
+-- Scene search indexes
+-- IF NOT EXISTS: databases baselined at V1 may already have them from the former sql.init script
+
+-- Trigram indexes for ILIKE search on name / description
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_scenes_name_trgm
+    ON scenes USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_scenes_description_trgm
+    ON scenes USING gin (description gin_trgm_ops);
+
+-- Containment (@>) queries over assets, e.g. every scene with a Chair instance
+CREATE INDEX IF NOT EXISTS idx_scenes_assets_path_ops
+    ON scenes USING gin (assets jsonb_path_ops);
@@ -0,0 +1,18 @@
+-- Scene version history
+-- Every save is a version: a full SNAPSHOT every N versions, compact asset DELTAs in between
+
+ALTER TABLE scenes ADD COLUMN current_version INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE scene_versions (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scene_id        BIGINT       NOT NULL,
+    version         INTEGER      NOT NULL,
+    kind            VARCHAR(10)  NOT NULL,
+    name            VARCHAR(100) NOT NULL,
+    description     VARCHAR(500),
+    thumbnail_url   VARCHAR(255),
+    payload         JSONB        NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_scene_versions_scene FOREIGN KEY (scene_id) REFERENCES scenes (id) ON DELETE CASCADE,
+    CONSTRAINT uk_scene_versions_scene_version UNIQUE (scene_id, version)
+);
@@ -0,0 +1,39 @@
+-- Scene sharding by owner
+-- Scenes (and their versions) live on the owner's shard; users stay on shard 0 (spring.datasource).
+-- Every shard runs the same migrations, so the scenes -> users foreign key is replaced by a denormalized owner name.
+-- ${shard} is the shard being migrated (spring.flyway.placeholders.shard for shard 0, ShardSchemaInitializer for the others).
+
+ALTER TABLE scenes ADD COLUMN owner_username VARCHAR(50);
+
+UPDATE scenes s SET owner_username = u.username FROM users u WHERE u.id = s.user_id;
+
+ALTER TABLE scenes ALTER COLUMN owner_username SET NOT NULL;
+
+-- fk_scenes_user when V1 created the table; databases created by Hibernate and baselined at V1 have a generated name
+DO $$
+DECLARE
+    fk_name TEXT;
+BEGIN
+    FOR fk_name IN
+        SELECT conname FROM pg_constraint
+        WHERE contype = 'f' AND conrelid = 'scenes'::regclass AND confrelid = 'users'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE scenes DROP CONSTRAINT %I', fk_name);
+    END LOOP;
+END $$;
+
+-- Shard holding the user's scenes; everything written before sharding is on shard 0
+ALTER TABLE users ADD COLUMN shard INTEGER NOT NULL DEFAULT 0;
+
+-- Shard holding a copy of the user's scenes that reads ignore: during a move, or left over by a failed one
+ALTER TABLE users ADD COLUMN stale_shard INTEGER;
+
+CREATE INDEX idx_users_stale_shard ON users (stale_shard) WHERE stale_shard IS NOT NULL;
+
+-- Users only live on shard 0; V1 also created the table on the scene shards
+DO $$
+BEGIN
+    IF ${shard} <> 0 THEN
+        DROP TABLE users;
+    END IF;
+END $$;
@@ -0,0 +1,27 @@
+-- Unique constraint names AuthService maps to signup errors (uk_users_username, uk_users_email)
+-- V1 already creates them with these names; databases created by Hibernate and baselined at V1 have generated names.
+-- Users only live on shard 0 (V4).
+
+DO $$
+DECLARE
+    target_column TEXT;
+    current_name TEXT;
+BEGIN
+    IF ${shard} <> 0 THEN
+        RETURN;
+    END IF;
+
+    FOREACH target_column IN ARRAY ARRAY['username', 'email']
+    LOOP
+        SELECT c.conname INTO current_name
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.contype = 'u' AND c.conrelid = 'users'::regclass
+          AND array_length(c.conkey, 1) = 1 AND a.attname = target_column
+        LIMIT 1;
+
+        IF current_name IS NOT NULL AND current_name <> 'uk_users_' || target_column THEN
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', current_name, 'uk_users_' || target_column);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,35 @@
+-- Scene lookup by id (see SceneShardRouter), shard 0 only
+-- A scene is on shard id % shard count unless SceneShardRebalancer moved it (or the shard count changed since it was
+-- created): those scenes are listed here with their owner, whose users.shard holds them.
+
+DO $$
+BEGIN
+    IF ${shard} <> 0 THEN
+        RETURN;
+    END IF;
+
+    CREATE TABLE scene_shard_overrides (
+        scene_id    BIGINT PRIMARY KEY,
+        user_id     BIGINT NOT NULL
+    );
+
+    CREATE INDEX idx_scene_shard_overrides_user ON scene_shard_overrides (user_id);
+
+    -- Shard count scene_shard_overrides was last filled for (ShardSchemaInitializer refills it when shards are added)
+    CREATE TABLE scene_shard_layout (
+        id          INTEGER PRIMARY KEY CHECK (id = 1),
+        shard_count INTEGER NOT NULL
+    );
+
+    -- scenes.owner_username copies the username to the owner's shard, so usernames can't change
+    CREATE FUNCTION reject_username_change() RETURNS trigger AS $fn$
+    BEGIN
+        RAISE EXCEPTION 'users.username is immutable (copied to scenes.owner_username)';
+    END
+    $fn$ LANGUAGE plpgsql;
+
+    CREATE TRIGGER trg_users_username_immutable
+        BEFORE UPDATE OF username ON users
+        FOR EACH ROW WHEN (OLD.username IS DISTINCT FROM NEW.username)
+        EXECUTE FUNCTION reject_username_change();
+END $$;
@@ -0,0 +1,156 @@
+package com.capstone.backend.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AtrousDenoiserTest {
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    private static final int SIZE = 9;
+    private static final int CENTER = 4;
+
+    // Same luminance (0.2126 * 0.7152 either way, IEEE products commute), so the luminance weight is exactly 1
+    // and the red impulse shows the remaining weights
+    private static final float IMPULSE_RED = 0.7152f;
+    private static final float BACKGROUND_GREEN = 0.2126f;
+
+    private static final double W_CENTER = 9.0 / 64.0;    // 3/8 * 3/8
+    private static final double W_AXIS_1 = 3.0 / 32.0;    // 1/4 * 3/8
+    private static final double W_DIAGONAL_2 = 1.0 / 256.0; // 1/16 * 1/16
+    private static final double W_MIXED = 1.0 / 64.0;     // 1/4 * 1/16
+
+    @Test
+    void firstIterationAppliesB3SplineWeights() {
+        float[][] result = AtrousDenoiser.denoise(impulseFrame(null, null), 1, POOL);
+
+        assertEquals(IMPULSE_RED * W_CENTER, red(result, 0, 0), 1e-6);
+        assertEquals(IMPULSE_RED * W_AXIS_1, red(result, 1, 0), 1e-6);
+        assertEquals(IMPULSE_RED * W_AXIS_1, red(result, 0, -1), 1e-6);
+        assertEquals(IMPULSE_RED * W_MIXED, red(result, 1, 2), 1e-6);
+        assertEquals(IMPULSE_RED * W_DIAGONAL_2, red(result, -2, 2), 1e-6);
+        assertEquals(0.0, red(result, 3, 0), 0.0);
+    }
+
+    @Test
+    void constantImageIsUnchangedWithAllGuides() {
+        int width = 13;
+        int height = 7;
+        int pixels = width * height;
+        float[] depth = new float[pixels];
+        float[][] normal = {new float[pixels], new float[pixels], new float[pixels]};
+        for (int p = 0; p < pixels; p++) {
+            depth[p] = 2f + 0.25f * (p % width);
+            normal[2][p] = 1f;
+        }
+        AtrousDenoiser.Frame frame = new AtrousDenoiser.Frame(width, height,
+                new float[][]{filled(pixels, 0.5f), filled(pixels, 0.25f), filled(pixels, 2f)},
+                new float[][]{filled(pixels, 0.5f), filled(pixels, 0.5f), filled(pixels, 0.5f)},
+                normal, depth, new int[pixels]);
+
+        float[][] result = AtrousDenoiser.denoise(frame, AtrousDenoiser.DEFAULT_ITERATIONS, POOL);
+
+        // Weights are normalized everywhere, including the borders where taps fall outside the image
+        for (int p = 0; p < pixels; p++) {
+            assertEquals(0.5f, result[0][p], 1e-6);
+            assertEquals(0.25f, result[1][p], 1e-6);
+            assertEquals(2f, result[2][p], 1e-6);
+        }
+    }
+
+    @Test
+    void differentSurfacesGetZeroWeight() {
+        AtrousDenoiser.Frame frame = splitFrame(false);
+        int[] surfaceId = frame.surfaceId();
+        for (int p = 0; p < surfaceId.length; p++) {
+            surfaceId[p] = p % SIZE < CENTER ? 1 : 2;
+        }
+
+        assertNoBleeding(AtrousDenoiser.denoise(frame, AtrousDenoiser.DEFAULT_ITERATIONS, POOL));
+    }
+
+    @Test
+    void opposingNormalsGetZeroWeight() {
+        assertNoBleeding(AtrousDenoiser.denoise(splitFrame(true), AtrousDenoiser.DEFAULT_ITERATIONS, POOL));
+    }
+
+    @Test
+    void normalWeightIsCosineToThe128th() {
+        int pixels = SIZE * SIZE;
+        float[][] normal = {new float[pixels], new float[pixels], new float[pixels]};
+        Arrays.fill(normal[2], 1f);
+        float cosine = 0.999f;
+        int tilted = CENTER * SIZE + CENTER + 1;
+        normal[0][tilted] = (float) Math.sqrt(1 - cosine * cosine);
+        normal[2][tilted] = cosine;
+
+        float[][] result = AtrousDenoiser.denoise(impulseFrame(normal, null), 1, POOL);
+
+        double factor = Math.pow(cosine, 128);
+        double expected = IMPULSE_RED * W_CENTER / (1.0 - W_AXIS_1 + W_AXIS_1 * factor);
+        assertEquals(expected, red(result, 0, 0), 1e-5);
+    }
+
+    @Test
+    void slantedDepthUsesTheDepthGradient() {
+        // Depth grows along x only: neighbours in the same column have the expected depth change of 0 and
+        // keep their weight, the others differ by exactly the predicted change, exp(-1)
+        float[] depth = new float[SIZE * SIZE];
+        for (int p = 0; p < depth.length; p++) {
+            depth[p] = 1f + 0.5f * (p % SIZE);
+        }
+
+        float[][] result = AtrousDenoiser.denoise(impulseFrame(null, depth), 1, POOL);
+
+        double sameColumn = 3.0 / 8.0 * 5.0 / 8.0;
+        double otherColumns = 5.0 / 8.0;
+        double expected = IMPULSE_RED * W_CENTER / (W_CENTER + sameColumn + otherColumns * Math.exp(-1));
+        assertEquals(expected, red(result, 0, 0), 1e-5);
+    }
+
+    private static AtrousDenoiser.Frame impulseFrame(float[][] normal, float[] depth) {
+        int pixels = SIZE * SIZE;
+        float[] red = new float[pixels];
+        float[] green = filled(pixels, BACKGROUND_GREEN);
+        red[CENTER * SIZE + CENTER] = IMPULSE_RED;
+        green[CENTER * SIZE + CENTER] = 0f;
+        return new AtrousDenoiser.Frame(SIZE, SIZE, new float[][]{red, green, new float[pixels]},
+                null, normal, depth, null);
+    }
+
+    // Left columns red facing +x, the others blue facing +z
+    private static AtrousDenoiser.Frame splitFrame(boolean withNormals) {
+        int pixels = SIZE * SIZE;
+        float[][] radiance = {new float[pixels], new float[pixels], new float[pixels]};
+        float[][] normal = {new float[pixels], new float[pixels], new float[pixels]};
+        for (int p = 0; p < pixels; p++) {
+            boolean left = p % SIZE < CENTER;
+            radiance[left ? 0 : 2][p] = 1f;
+            normal[left ? 0 : 2][p] = 1f;
+        }
+        return new AtrousDenoiser.Frame(SIZE, SIZE, radiance, null,
+                withNormals ? normal : null, null, withNormals ? null : new int[pixels]);
+    }
+
+    private static void assertNoBleeding(float[][] result) {
+        for (int p = 0; p < SIZE * SIZE; p++) {
+            boolean left = p % SIZE < CENTER;
+            assertEquals(left ? 1f : 0f, result[0][p], 0f);
+            assertEquals(left ? 0f : 1f, result[2][p], 0f);
+        }
+    }
+
+    private static double red(float[][] result, int dx, int dy) {
+        return result[0][(CENTER + dy) * SIZE + CENTER + dx];
+    }
+
+    private static float[] filled(int length, float value) {
+        float[] values = new float[length];
+        Arrays.fill(values, value);
+        return values;
+    }
+}
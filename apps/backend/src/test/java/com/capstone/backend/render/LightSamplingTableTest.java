@@ -0,0 +1,213 @@
+package com.capstone.backend.render;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LightSamplingTableTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Unit square in the XZ plane, two triangles, one emissive group
+    private static final MeshGeometry PANEL = new MeshGeometry(
+            new float[]{0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1},
+            new float[12],
+            new float[8],
+            new int[]{0, 1, 2, 0, 2, 3},
+            new int[]{0, 6},
+            List.of(new MeshGeometry.Material(new double[]{1, 1, 1, 1}, new double[]{1, 1, 1}, 3.0, 0.0, 1.0, false)),
+            0L);
+
+    private static final MeshGeometry CHAIR = new MeshGeometry(
+            new float[]{0, 0, 0, 1, 0, 0, 0, 1, 0},
+            new float[9],
+            new float[6],
+            new int[]{0, 1, 2},
+            new int[]{0, 3},
+            List.of(new MeshGeometry.Material(new double[]{1, 1, 1, 1}, new double[]{0, 0, 0}, 1.0, 0.0, 1.0, false)),
+            0L);
+
+    private static final Function<String, Optional<MeshGeometry>> MESHES =
+            name -> Optional.ofNullable(Map.of("Panel", PANEL, "Chair", CHAIR).get(name));
+
+    @Test
+    void aliasTableReproducesPowerProportionalPdf() {
+        SceneAssets assets = parse("[" +
+                pointLight("p1", 1.0) + "," + pointLight("p2", 3.0) + "," + pointLight("p3", 0.5) + "," +
+                pointLight("p4", 0.0) + "," + pointLight("p5", 10.0) + "]");
+
+        LightSamplingTable table = LightSamplingTable.build(assets, MESHES, null);
+        Decoded decoded = decode(table, 5);
+
+        double[] intensities = {1.0, 3.0, 0.5, 0.0, 10.0};
+        double total = 14.5;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(intensities[i] / total, decoded.pdf[i], 1e-6);
+        }
+        assertCdfMatchesPdf(decoded);
+        assertAliasMassMatchesPdf(decoded);
+        assertEquals(4 * Math.PI * total, table.totalPower(), 1e-9);
+    }
+
+    @Test
+    void blackSceneFallsBackToUniform() {
+        LightSamplingTable table = LightSamplingTable.build(
+                parse("[" + pointLight("a", 0.0) + "," + pointLight("b", 0.0) + "]"), MESHES, null);
+        Decoded decoded = decode(table, 2);
+
+        assertEquals(0.5, decoded.pdf[0], 1e-7);
+        assertEquals(0.5, decoded.pdf[1], 1e-7);
+        assertAliasMassMatchesPdf(decoded);
+    }
+
+    @Test
+    void emissiveTrianglesFollowLightsWithWorldSpaceArea() {
+        // Panel scaled by 2 on X and Z: each triangle has area 2, emission 3 (luminance 3)
+        SceneAssets assets = parse("[" + pointLight("p", 1.0) + "," +
+                object("lamp", "Panel", "[0, 5, 0]", "[2, 1, 2]") + "," +
+                object("chair", "Chair", "[0, 0, 0]", "[1, 1, 1]") + "]");
+
+        LightSamplingTable table = LightSamplingTable.build(assets, MESHES, null);
+
+        assertEquals(1, table.lightCount());
+        assertEquals(2, table.emissiveTriangleCount());
+
+        Decoded decoded = decode(table, 3);
+        double pointPower = 4 * Math.PI;
+        double trianglePower = Math.PI * 2.0 * 3.0;
+        double total = pointPower + 2 * trianglePower;
+        assertEquals(pointPower / total, decoded.pdf[0], 1e-6);
+        assertEquals(trianglePower / total, decoded.pdf[1], 1e-6);
+        assertEquals(trianglePower / total, decoded.pdf[2], 1e-6);
+        assertAliasMassMatchesPdf(decoded);
+
+        // First emissive triangle: panel vertices 0, 1, 2 scaled and lifted, then its emission
+        ByteBuffer buffer = ByteBuffer.wrap(table.buffer()).order(ByteOrder.LITTLE_ENDIAN);
+        int emissiveOffset = 4 * (3 + LightSamplingTable.ALIAS_STRIDE * 3);
+        float[] expected = {0, 5, 0, 2, 5, 0, 2, 5, 2, 3, 3, 3};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer.getFloat(emissiveOffset + 4 * i), 1e-5f);
+        }
+        assertEquals(emissiveOffset + 4 * 2 * LightSamplingTable.EMISSIVE_STRIDE, table.buffer().length);
+    }
+
+    @Test
+    void unchangedLightsReuseBufferUntilAnEmitterMoves() {
+        String light = pointLight("p", 2.0);
+        LightSamplingTable first = LightSamplingTable.build(
+                parse("[" + light + "," + object("lamp", "Panel", "[0, 5, 0]", "[1, 1, 1]") + "," +
+                        object("chair", "Chair", "[0, 0, 0]", "[1, 1, 1]") + "]"), MESHES, null);
+
+        LightSamplingTable chairMoved = LightSamplingTable.build(
+                parse("[" + light + "," + object("lamp", "Panel", "[0, 5, 0]", "[1, 1, 1]") + "," +
+                        object("chair", "Chair", "[3, 0, 1]", "[1, 1, 1]") + "]"), MESHES, first);
+        assertSame(first.buffer(), chairMoved.buffer());
+
+        LightSamplingTable lampMoved = LightSamplingTable.build(
+                parse("[" + light + "," + object("lamp", "Panel", "[1, 5, 0]", "[1, 1, 1]") + "," +
+                        object("chair", "Chair", "[3, 0, 1]", "[1, 1, 1]") + "]"), MESHES, chairMoved);
+        assertNotSame(chairMoved.buffer(), lampMoved.buffer());
+    }
+
+    @Test
+    void unchangedEmittersReuseTheirTriangles() {
+        String light = pointLight("p", 2.0);
+        LightSamplingTable first = LightSamplingTable.build(
+                parse("[" + light + "," + object("lamp", "Panel", "[0, 5, 0]", "[1, 1, 1]") + "," +
+                        object("sign", "Panel", "[4, 2, 0]", "[1, 1, 1]") + "]"), MESHES, null);
+
+        LightSamplingTable signMoved = LightSamplingTable.build(
+                parse("[" + light + "," + object("lamp", "Panel", "[0, 5, 0]", "[1, 1, 1]") + "," +
+                        object("sign", "Panel", "[4, 3, 0]", "[1, 1, 1]") + "]"), MESHES, first);
+
+        assertSame(first.emissiveTriangles("lamp"), signMoved.emissiveTriangles("lamp"));
+        assertNotSame(first.emissiveTriangles("sign"), signMoved.emissiveTriangles("sign"));
+        assertEquals(3.0f, signMoved.emissiveTriangles("sign")[1], 1e-6f);
+        assertEquals(4, signMoved.emissiveTriangleCount());
+    }
+
+    @Test
+    void missingMeshesAreReported() {
+        LightSamplingTable table = LightSamplingTable.build(
+                parse("[" + object("lamp", "Panel", "[0, 5, 0]", "[1, 1, 1]") + "," +
+                        object("a", "Missing", "[0, 0, 0]", "[1, 1, 1]") + "," +
+                        object("b", "Missing", "[1, 0, 0]", "[1, 1, 1]") + "]"), MESHES, null);
+
+        assertEquals(List.of("Missing"), table.missingMeshes());
+        assertEquals(2, table.emissiveTriangleCount());
+    }
+
+    @Test
+    void nullLightParamsAreSkipped() {
+        SceneAssets assets = parse("[{\"id\": \"x\", \"type\": \"point-light\", \"lightParams\": null}," +
+                pointLight("p", 1.0) + "]");
+
+        assertEquals(1, assets.lights().size());
+        assertEquals("p", assets.lights().get(0).id());
+    }
+
+    private record Decoded(int count, float[] cdf, float[] threshold, int[] alias, float[] pdf) {}
+
+    private static Decoded decode(LightSamplingTable table, int count) {
+        ByteBuffer buffer = ByteBuffer.wrap(table.buffer()).order(ByteOrder.LITTLE_ENDIAN);
+        float[] cdf = new float[count];
+        float[] threshold = new float[count];
+        int[] alias = new int[count];
+        float[] pdf = new float[count];
+        for (int i = 0; i < count; i++) cdf[i] = buffer.getFloat();
+        for (int i = 0; i < count; i++) {
+            threshold[i] = buffer.getFloat();
+            alias[i] = buffer.getInt();
+            pdf[i] = buffer.getFloat();
+        }
+        return new Decoded(count, cdf, threshold, alias, pdf);
+    }
+
+    private static void assertCdfMatchesPdf(Decoded decoded) {
+        double cumulative = 0.0;
+        for (int i = 0; i < decoded.count(); i++) {
+            cumulative += decoded.pdf()[i];
+            assertEquals(cumulative, decoded.cdf()[i], 1e-6);
+        }
+        assertEquals(1.0f, decoded.cdf()[decoded.count() - 1]);
+    }
+
+    // Probability of picking i: (threshold[i] + sum of (1 - threshold[j]) over j aliasing to i) / M
+    private static void assertAliasMassMatchesPdf(Decoded decoded) {
+        int count = decoded.count();
+        double[] mass = new double[count];
+        for (int i = 0; i < count; i++) {
+            assertTrue(decoded.alias()[i] >= 0 && decoded.alias()[i] < count);
+            mass[i] += decoded.threshold()[i] / count;
+            mass[decoded.alias()[i]] += (1.0 - decoded.threshold()[i]) / count;
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(decoded.pdf()[i], mass[i], 1e-6);
+        }
+    }
+
+    private static SceneAssets parse(String assets) {
+        return SceneAssets.parse(OBJECT_MAPPER, assets);
+    }
+
+    private static String pointLight(String id, double intensity) {
+        return "{\"id\": \"" + id + "\", \"type\": \"point-light\", \"lightParams\": " +
+                "{\"position\": [0, 3, 0], \"color\": [1, 1, 1], \"intensity\": " + intensity + "}}";
+    }
+
+    private static String object(String id, String meshName, String position, String scale) {
+        return "{\"id\": \"" + id + "\", \"type\": \"object\", \"meshName\": \"" + meshName + "\", " +
+                "\"transform\": {\"position\": " + position + ", \"rotation\": [0, 0, 0], \"scale\": " + scale + "}}";
+    }
+}
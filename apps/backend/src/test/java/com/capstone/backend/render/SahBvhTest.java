@@ -0,0 +1,119 @@
+package com.capstone.backend.render;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SahBvhTest {
+
+    // Unit cubes at x = 0 and x = 10: SA 6 each, root 11 x 1 x 1 with SA 46
+    private static final double[] TWO_CUBES = {
+            0, 0, 0, 1, 1, 1,
+            10, 0, 0, 11, 1, 1
+    };
+
+    @Test
+    void smallInputIsOneLeaf() {
+        double[] boxes = {
+                0, 0, 0, 1, 1, 1,
+                2, 0, 0, 3, 1, 1,
+                4, 0, 0, 5, 1, 1
+        };
+
+        SahBvh.Result result = SahBvh.build(boxes, null, 10);
+
+        assertEquals(1, result.nodeCount());
+        assertEquals(1, result.leafCount());
+        assertEquals(3 * SahBvh.TRIANGLE_INTERSECT_COST, result.sahCost(), 1e-12);
+        assertArrayEquals(new double[]{0, 0, 0, 5, 1, 1}, result.bounds());
+    }
+
+    @Test
+    void separatedPrimitivesSplitWithSurfaceAreaWeightedCost() {
+        SahBvh.Result result = SahBvh.build(TWO_CUBES, null, 1);
+
+        assertEquals(3, result.nodeCount());
+        assertEquals(2, result.leafCount());
+        // Root traversal, then each leaf weighted by SA(leaf) / SA(root)
+        double expected = SahBvh.TRAVERSAL_COST + 2 * 6.0 * SahBvh.TRIANGLE_INTERSECT_COST / 46.0;
+        assertEquals(expected, result.sahCost(), 1e-12);
+    }
+
+    @Test
+    void primitiveCostsWeightTheLeaves() {
+        SahBvh.Result result = SahBvh.build(TWO_CUBES, new double[]{3.0, 5.0}, 1);
+
+        assertEquals(SahBvh.TRAVERSAL_COST + (6.0 * 3.0 + 6.0 * 5.0) / 46.0, result.sahCost(), 1e-12);
+    }
+
+    @Test
+    void overlappingPrimitivesStayInOneLeafWhenSplittingCostsMore() {
+        // Splitting: 1 + 2 * 6 * 1.25 / 6.4 = 3.34 > leaf: 2 * 1.25
+        double[] boxes = {
+                0, 0, 0, 1, 1, 1,
+                0.1, 0, 0, 1.1, 1, 1
+        };
+
+        SahBvh.Result result = SahBvh.build(boxes, null, 1);
+
+        assertEquals(1, result.nodeCount());
+        assertEquals(2 * SahBvh.TRIANGLE_INTERSECT_COST, result.sahCost(), 1e-12);
+    }
+
+    @Test
+    void coincidentPrimitivesBeyondTheLeafCountLimitAreHalved() {
+        int count = 0x10000 + 1;
+        double[] boxes = new double[count * 6];
+        for (int i = 0; i < count; i++) {
+            boxes[i * 6 + 3] = 1;
+            boxes[i * 6 + 4] = 1;
+            boxes[i * 6 + 5] = 1;
+        }
+
+        SahBvh.Tree tree = SahBvh.buildTree(boxes, null, 10, 0);
+
+        assertEquals(3, tree.result().nodeCount());
+        int[] nodes = tree.nodes();
+        assertEquals(count / 2, nodes[SahBvh.NODE_WORDS + 7] & 0xFFFF);
+        assertEquals(count - count / 2, nodes[2 * SahBvh.NODE_WORDS + 7] & 0xFFFF);
+        // Every node has the root's bounds
+        assertEquals(SahBvh.TRAVERSAL_COST + count * SahBvh.TRIANGLE_INTERSECT_COST, tree.result().sahCost(), 1e-6);
+    }
+
+    @Test
+    void treeIsFlattenedInThreeMeshBvhLayout() {
+        SahBvh.Tree tree = SahBvh.buildTree(TWO_CUBES, null, 1, 100);
+        int[] nodes = tree.nodes();
+
+        assertEquals(3 * SahBvh.NODE_WORDS, nodes.length);
+        // Root: left child right after it, right child offset in words, split axis x
+        assertEquals(2 * SahBvh.NODE_WORDS, nodes[6]);
+        assertEquals(0, nodes[7]);
+        assertArrayEquals(new float[]{0, 0, 0, 11, 1, 1}, bounds(nodes, 0));
+
+        // Leaves: first primitive from primitiveBase, count with the leaf flag
+        assertEquals(100, nodes[SahBvh.NODE_WORDS + 6]);
+        assertEquals(SahBvh.LEAF_FLAG | 1, nodes[SahBvh.NODE_WORDS + 7]);
+        assertEquals(101, nodes[2 * SahBvh.NODE_WORDS + 6]);
+        assertArrayEquals(new float[]{10, 0, 0, 11, 1, 1}, bounds(nodes, 2 * SahBvh.NODE_WORDS));
+        assertArrayEquals(new int[]{0, 1}, tree.primitiveOrder());
+    }
+
+    @Test
+    void emptyInputIsOneEmptyLeaf() {
+        SahBvh.Tree tree = SahBvh.buildTree(new double[0], null, 10, 7);
+
+        assertEquals(0, tree.result().nodeCount());
+        assertEquals(0.0, tree.result().sahCost(), 0.0);
+        assertEquals(SahBvh.NODE_WORDS, tree.nodes().length);
+        assertEquals(7, tree.nodes()[6]);
+        assertEquals(SahBvh.LEAF_FLAG, tree.nodes()[7]);
+    }
+
+    private static float[] bounds(int[] nodes, int at) {
+        float[] bounds = new float[6];
+        for (int i = 0; i < 6; i++) bounds[i] = Float.intBitsToFloat(nodes[at + i]);
+        return bounds;
+    }
+}
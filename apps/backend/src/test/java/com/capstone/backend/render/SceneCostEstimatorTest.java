@@ -0,0 +1,86 @@
+package com.capstone.backend.render;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SceneCostEstimatorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Unit cube: 12 triangles, BLAS cost 2
+    private static final MeshStats BOX = new MeshStats(24, 36, 1, 3, 2.0, new double[]{0, 0, 0, 1, 1, 1}, 1024L);
+    // Flat 2 x 2 panel with two sub-meshes: BLAS cost 1.5
+    private static final MeshStats PANEL = new MeshStats(4, 6, 2, 2, 1.5, new double[]{0, 0, 0, 2, 0, 2}, 0L);
+
+    private static final Function<String, Optional<MeshStats>> MESHES =
+            name -> Optional.ofNullable(Map.of("Box", BOX, "Panel", PANEL).get(name));
+
+    @Test
+    void sizesFollowRendererLayouts() {
+        SceneCostEstimator.Estimate estimate = estimate();
+
+        assertEquals(3, estimate.instanceCount());
+        assertEquals(List.of("Box", "Panel"), List.copyOf(estimate.meshes().keySet()));
+        assertEquals(List.of("Ghost"), estimate.missingMeshes());
+        assertEquals(12 + 12 + 2, estimate.triangleCount());
+        assertEquals(12 + 2, estimate.uniqueTriangleCount());
+
+        // Meshes once: 8-word vertices, u32 indices, 15-word materials and one BLAS root per sub-mesh, 6-word descriptors
+        assertEquals((24 + 4) * 32L, estimate.vertexBytes());
+        assertEquals((36 + 6) * 4L, estimate.indexBytes());
+        assertEquals(3 * 60L, estimate.materialBytes());
+        assertEquals(3 * 4L, estimate.subBlasRootBytes());
+        assertEquals(2 * 24L, estimate.meshDescriptorBytes());
+        assertEquals((3 + 2) * 32L, estimate.blasBytes());
+        assertEquals(1024L, estimate.textureBytes());
+
+        // Per asset: 33-word instances, 18-word lights plus one CDF entry each
+        assertEquals(3 * 33 * 4L, estimate.instanceBytes());
+        assertEquals(2 * (18 * 4 + 4L), estimate.lightBytes());
+        assertEquals(2, (int) estimate.lightCounts().get(SceneAssets.LightType.POINT));
+        assertEquals(0, (int) estimate.lightCounts().get(SceneAssets.LightType.RECT));
+        assertEquals(2.0, estimate.maxBlasSahCost(), 0.0);
+    }
+
+    @Test
+    void tlasCostIncludesTheBlasOfEveryLeaf() {
+        SceneCostEstimator.Estimate estimate = estimate();
+
+        // Boxes at x = 0 and x = 10, panel at y = 5: root 11 x 5 x 2 (SA 174) splits off the far box,
+        // then {box, panel} (2 x 5 x 2, SA 48) splits into single-instance leaves.
+        // An instance costs one traversal step plus its BLAS: box 3, panel 2.5
+        assertEquals(5, estimate.tlas().nodeCount());
+        assertEquals(3, estimate.tlas().leafCount());
+        double expected = (174 * 1.0 + 48 * 1.0 + 6 * 3.0 + 8 * 2.5 + 6 * 3.0) / 174;
+        assertEquals(expected, estimate.sahCost(), 1e-12);
+        assertEquals(5 * 32L, estimate.tlasBytes());
+    }
+
+    private static SceneCostEstimator.Estimate estimate() {
+        SceneAssets assets = SceneAssets.parse(OBJECT_MAPPER, "[" +
+                object("box-1", "Box", "[0, 0, 0]") + "," +
+                object("box-2", "Box", "[10, 0, 0]") + "," +
+                object("panel", "Panel", "[0, 5, 0]") + "," +
+                object("ghost-1", "Ghost", "[0, 0, 0]") + "," +
+                object("ghost-2", "Ghost", "[1, 0, 0]") + "," +
+                pointLight("p1") + "," + pointLight("p2") + "]");
+        return SceneCostEstimator.estimate(assets, MESHES);
+    }
+
+    private static String pointLight(String id) {
+        return "{\"id\": \"" + id + "\", \"type\": \"point-light\", \"lightParams\": " +
+                "{\"position\": [0, 3, 0], \"color\": [1, 1, 1], \"intensity\": 1}}";
+    }
+
+    private static String object(String id, String meshName, String position) {
+        return "{\"id\": \"" + id + "\", \"type\": \"object\", \"meshName\": \"" + meshName + "\", " +
+                "\"transform\": {\"position\": " + position + ", \"rotation\": [0, 0, 0], \"scale\": [1, 1, 1]}}";
+    }
+}
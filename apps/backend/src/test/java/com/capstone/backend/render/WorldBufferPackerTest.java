@@ -0,0 +1,263 @@
+package com.capstone.backend.render;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldBufferPackerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Strides of Structs.ts / the shaders, by section id
+    private static final Map<Integer, Integer> STRIDES = Map.of(
+            WorldBufferPacker.SECTION_INSTANCES, 33,
+            WorldBufferPacker.SECTION_MESH_DESCRIPTORS, 6,
+            WorldBufferPacker.SECTION_MATERIALS, 15,
+            WorldBufferPacker.SECTION_LIGHTS, 18,
+            WorldBufferPacker.SECTION_VERTICES, 8,
+            WorldBufferPacker.SECTION_INDICES, 3,
+            WorldBufferPacker.SECTION_BLAS, 8);
+
+    private static final MeshGeometry.Material RED = new MeshGeometry.Material(
+            new double[]{1, 0, 0, 0.5}, new double[]{0, 0, 0}, 1.0, 0.25, 0.75, false);
+    private static final MeshGeometry.Material GLASS = new MeshGeometry.Material(
+            new double[]{1, 1, 1, 1}, new double[]{0.5, 0.5, 0}, 2.0, 0.0, 0.0, true);
+
+    // 12 x 12 quads in group 0 (288 triangles, several BLAS levels), 1 x 1 in group 1
+    private static final MeshGeometry FLOOR = grid(new int[]{12, 1}, List.of(RED, GLASS));
+    private static final MeshGeometry BOX = grid(new int[]{2}, List.of(RED));
+
+    private static final Function<String, Optional<SerializedMesh>> MESHES = name -> Optional.ofNullable(
+            Map.of("Floor", SerializedMesh.of(FLOOR), "Box", SerializedMesh.of(BOX)).get(name));
+
+    @Test
+    void sectionsAreContiguousInRendererOrderWithShaderStrides() {
+        Packed packed = pack();
+
+        assertEquals(WorldBufferPacker.MAGIC, packed.buffer.getInt(0));
+        assertEquals(WorldBufferPacker.FORMAT_VERSION, packed.buffer.getInt(4));
+        assertEquals(7, packed.buffer.getInt(8));
+
+        List<Integer> order = packed.order;
+        assertEquals(List.of(
+                WorldBufferPacker.SECTION_INSTANCES, WorldBufferPacker.SECTION_MESH_DESCRIPTORS,
+                WorldBufferPacker.SECTION_MATERIALS, WorldBufferPacker.SECTION_LIGHTS,
+                WorldBufferPacker.SECTION_LIGHT_SAMPLING, WorldBufferPacker.SECTION_VERTICES,
+                WorldBufferPacker.SECTION_INDICES, WorldBufferPacker.SECTION_SUB_BLAS_ROOTS,
+                WorldBufferPacker.SECTION_BLAS, WorldBufferPacker.SECTION_MESH_TABLE), order);
+
+        int expectedOffset = 4 + 4 * order.size();
+        for (int id : order) {
+            int[] entry = packed.sections.get(id);
+            assertEquals(expectedOffset, entry[0], "offset of section " + id);
+            if (STRIDES.containsKey(id)) {
+                assertEquals((int) STRIDES.get(id), entry[2], "stride of section " + id);
+                assertEquals(0, entry[1] % entry[2], "length of section " + id);
+            }
+            expectedOffset += entry[1];
+        }
+        assertEquals(4 * expectedOffset, packed.buffer.capacity());
+
+        // 3 instances, 2 distinct meshes (3 sub-meshes), 1 light
+        assertEquals(3 * 33, packed.sections.get(WorldBufferPacker.SECTION_INSTANCES)[1]);
+        assertEquals(2 * 6, packed.sections.get(WorldBufferPacker.SECTION_MESH_DESCRIPTORS)[1]);
+        assertEquals(3 * 15, packed.sections.get(WorldBufferPacker.SECTION_MATERIALS)[1]);
+        assertEquals(18, packed.sections.get(WorldBufferPacker.SECTION_LIGHTS)[1]);
+        assertEquals(8 * (FLOOR.vertexCount() + BOX.vertexCount()), packed.sections.get(WorldBufferPacker.SECTION_VERTICES)[1]);
+        assertEquals(FLOOR.indices().length + BOX.indices().length, packed.sections.get(WorldBufferPacker.SECTION_INDICES)[1]);
+    }
+
+    @Test
+    void descriptorsAndMaterialsMatchMeshSerialize() {
+        Packed packed = pack();
+        int[] floor = packed.descriptor(0);
+        int[] box = packed.descriptor(1);
+
+        assertEquals(0, floor[0]);
+        assertEquals(8 * FLOOR.vertexCount(), box[0]);
+        assertEquals(FLOOR.indices().length, box[1]);
+        assertEquals(2 * 15, box[2]);
+        assertEquals(2, box[3]);
+        assertEquals(2, floor[5]);
+        assertEquals(1, box[5]);
+
+        int material = packed.sections.get(WorldBufferPacker.SECTION_MATERIALS)[0];
+        float[] red = packed.floats(material, 12);
+        float[] glass = packed.floats(material + 15, 12);
+        // Albedo alpha is always 1 in Material.Serialize
+        assertEquals(List.of(1f, 0f, 0f, 1f, 0f, 0f, 0f, 1f, 0.25f, 0.75f, 0f, 1.5f), boxed(red));
+        assertEquals(List.of(1f, 1f, 1f, 1f, 0.5f, 0.5f, 0f, 2f, 0f, 0f, 1f, 1.5f), boxed(glass));
+
+        // MeshIndex in first-use order
+        int instances = packed.sections.get(WorldBufferPacker.SECTION_INSTANCES)[0];
+        assertEquals(0, packed.buffer.getInt(4 * (instances + 32)));
+        assertEquals(1, packed.buffer.getInt(4 * (instances + 33 + 32)));
+        assertEquals(0, packed.buffer.getInt(4 * (instances + 66 + 32)));
+    }
+
+    @Test
+    void blasTraversalLikeTheShaderReachesEveryTriangleOnce() {
+        Packed packed = pack();
+        int[] floor = packed.descriptor(0);
+        int subBlasRoots = packed.sections.get(WorldBufferPacker.SECTION_SUB_BLAS_ROOTS)[0] + floor[3];
+        int blas = packed.sections.get(WorldBufferPacker.SECTION_BLAS)[0] + floor[4];
+        int indices = packed.sections.get(WorldBufferPacker.SECTION_INDICES)[0] + floor[1];
+        int vertices = packed.sections.get(WorldBufferPacker.SECTION_VERTICES)[0] + floor[0];
+
+        int[] seen = new int[FLOOR.indices().length / 3];
+        for (int subMesh = 0; subMesh < floor[5]; subMesh++) {
+            int root = blas + packed.buffer.getInt(4 * (subBlasRoots + subMesh));
+            List<Integer> stack = new ArrayList<>(List.of(0));
+            int nodes = 0;
+            while (!stack.isEmpty()) {
+                int node = root + 8 * stack.remove(stack.size() - 1);
+                float[] bounds = packed.floats(node, 6);
+                int offset = packed.buffer.getInt(4 * (node + 6));
+                int count = packed.buffer.getInt(4 * (node + 7));
+                nodes++;
+
+                if ((count & 0xffff0000) == 0) {
+                    int left = (node - root) / 8 + 1;
+                    int right = offset / 8;
+                    assertContains(bounds, packed.floats(root + 8 * left, 6));
+                    assertContains(bounds, packed.floats(root + 8 * right, 6));
+                    stack.add(right);
+                    stack.add(left);
+                    continue;
+                }
+
+                assertTrue((count & 0xffff) <= MeshStats.BLAS_MAX_LEAF_TRIANGLES);
+                for (int primitive = offset; primitive < offset + (count & 0xffff); primitive++) {
+                    seen[primitive]++;
+                    for (int corner = 0; corner < 3; corner++) {
+                        int vertex = packed.buffer.getInt(4 * (indices + 3 * primitive + corner));
+                        float[] position = packed.floats(vertices + 8 * vertex, 3);
+                        assertContains(bounds, new float[]{position[0], position[1], position[2],
+                                position[0], position[1], position[2]});
+                    }
+                }
+            }
+            assertTrue(subMesh > 0 || nodes > 3, "group 0 needs a multi-level tree");
+        }
+
+        for (int triangle = 0; triangle < seen.length; triangle++) {
+            assertEquals(1, seen[triangle], "triangle " + triangle);
+        }
+        // Leaves address triangles within their own group
+        assertEquals(FLOOR.groupStarts()[1] / 3,
+                packed.buffer.getInt(4 * (blas + packed.buffer.getInt(4 * (subBlasRoots + 1)) + 6)));
+    }
+
+    @Test
+    void missingMeshIsPackedEmpty() {
+        SceneAssets assets = SceneAssets.parse(OBJECT_MAPPER, "[" + object("a", "Ghost", "[0, 0, 0]") + "]");
+        LightSamplingTable table = LightSamplingTable.build(assets, name -> Optional.empty(), null);
+        Packed packed = new Packed(WorldBufferPacker.pack(assets, table, MESHES, 1));
+
+        int[] ghost = packed.descriptor(0);
+        assertEquals(0, ghost[5]);
+        assertEquals(0, packed.sections.get(WorldBufferPacker.SECTION_VERTICES)[1]);
+        assertEquals(0, packed.sections.get(WorldBufferPacker.SECTION_BLAS)[1]);
+    }
+
+    private static Packed pack() {
+        SceneAssets assets = SceneAssets.parse(OBJECT_MAPPER, "[" +
+                object("floor", "Floor", "[0, 0, 0]") + "," +
+                object("box", "Box", "[2, 0, 2]") + "," +
+                object("floor-2", "Floor", "[20, 0, 0]") + "," +
+                "{\"id\": \"sun\", \"type\": \"point-light\", \"lightParams\": " +
+                "{\"position\": [0, 5, 0], \"color\": [1, 1, 1], \"intensity\": 3}}]");
+        LightSamplingTable table = LightSamplingTable.build(assets, name -> Optional.empty(), null);
+        return new Packed(WorldBufferPacker.pack(assets, table, MESHES, 7));
+    }
+
+    private static final class Packed {
+
+        final ByteBuffer buffer;
+        final List<Integer> order = new ArrayList<>();
+        // section id -> {offset, length, stride} in words
+        final Map<Integer, int[]> sections = new HashMap<>();
+
+        Packed(byte[] bytes) {
+            buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            int count = buffer.getInt(12);
+            for (int i = 0; i < count; i++) {
+                int at = 16 + 16 * i;
+                order.add(buffer.getInt(at));
+                sections.put(buffer.getInt(at), new int[]{buffer.getInt(at + 4), buffer.getInt(at + 8), buffer.getInt(at + 12)});
+            }
+        }
+
+        int[] descriptor(int mesh) {
+            int at = sections.get(WorldBufferPacker.SECTION_MESH_DESCRIPTORS)[0] + 6 * mesh;
+            int[] descriptor = new int[6];
+            for (int i = 0; i < 6; i++) descriptor[i] = buffer.getInt(4 * (at + i));
+            return descriptor;
+        }
+
+        float[] floats(int word, int count) {
+            float[] values = new float[count];
+            for (int i = 0; i < count; i++) values[i] = buffer.getFloat(4 * (word + i));
+            return values;
+        }
+    }
+
+    private static void assertContains(float[] outer, float[] inner) {
+        for (int axis = 0; axis < 3; axis++) {
+            assertTrue(outer[axis] <= inner[axis] && inner[3 + axis] <= outer[3 + axis]);
+        }
+    }
+
+    private static List<Float> boxed(float[] values) {
+        List<Float> result = new ArrayList<>();
+        for (float value : values) result.add(value);
+        return result;
+    }
+
+    // Groups of size x size unit quads on the y = 0 plane, each group shifted along z
+    private static MeshGeometry grid(int[] sizes, List<MeshGeometry.Material> materials) {
+        List<Float> positions = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int[] groupStarts = new int[sizes.length + 1];
+        for (int group = 0; group < sizes.length; group++) {
+            groupStarts[group] = indices.size();
+            int size = sizes[group];
+            int base = positions.size() / 3;
+            for (int z = 0; z <= size; z++) {
+                for (int x = 0; x <= size; x++) {
+                    positions.add((float) x);
+                    positions.add(0f);
+                    positions.add((float) (z + 20 * group));
+                }
+            }
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int corner = base + z * (size + 1) + x;
+                    indices.addAll(List.of(corner, corner + 1, corner + size + 2, corner, corner + size + 2, corner + size + 1));
+                }
+            }
+        }
+        groupStarts[sizes.length] = indices.size();
+
+        float[] positionArray = new float[positions.size()];
+        for (int i = 0; i < positionArray.length; i++) positionArray[i] = positions.get(i);
+        return new MeshGeometry(positionArray, new float[positionArray.length], new float[positionArray.length / 3 * 2],
+                indices.stream().mapToInt(Integer::intValue).toArray(), groupStarts, materials, 0L);
+    }
+
+    private static String object(String id, String meshName, String position) {
+        return "{\"id\": \"" + id + "\", \"type\": \"object\", \"meshName\": \"" + meshName + "\", " +
+                "\"transform\": {\"position\": " + position + ", \"rotation\": [0, 0, 0], \"scale\": [1, 1, 1]}}";
+    }
+}
@@ -0,0 +1,125 @@
+package com.capstone.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans the native search queries of SceneRepository against a migrated PostgreSQL database (Testcontainers,
+ * needs Docker) and checks they can use the V2 GIN indexes and never read the assets column for the result rows.
+ */
+@Testcontainers
+class SceneSearchIndexTest {
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndFill() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .placeholders(Map.of("shard", "0"))
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // Enough unrelated rows that a scan would cost more than the index
+            statement.execute("INSERT INTO scenes (name, description, assets, user_id, owner_username, created_at, updated_at) " +
+                    "SELECT 'Scene ' || md5(i::text), 'Generated ' || md5((i * 7)::text), " +
+                    "jsonb_build_array(jsonb_build_object('meshName', 'Mesh' || (i % 500), 'position', jsonb_build_array(i, 0, 0))), " +
+                    "1, 'tester', now(), now() FROM generate_series(1, 20000) i");
+            statement.execute("INSERT INTO scenes (name, description, assets, user_id, owner_username, created_at, updated_at) " +
+                    "SELECT 'Reading room ' || i, 'Needle lamp by the window', " +
+                    "'[{\"meshName\": \"NeedleLamp\"}, {\"meshName\": \"Chair\"}]'::jsonb, " +
+                    "1, 'tester', now(), now() FROM generate_series(1, 5) i");
+            statement.execute("ANALYZE scenes");
+        }
+    }
+
+    @Test
+    void textSearchUsesTrigramIndexes() throws Exception {
+        String plan = explain("searchByText", Map.of("pattern", "%needle%", "cursor", Long.MAX_VALUE, "limit", 20));
+
+        assertTrue(plan.contains("idx_scenes_name_trgm"), plan);
+        assertTrue(plan.contains("idx_scenes_description_trgm"), plan);
+        assertFalse(readsAssets(plan), plan);
+    }
+
+    @Test
+    void meshSearchUsesJsonbPathOpsIndex() throws Exception {
+        String plan = explain("findByAssetsContaining",
+                Map.of("containment", "[{\"meshName\": \"NeedleLamp\"}]", "cursor", Long.MAX_VALUE, "limit", 20));
+
+        assertTrue(plan.contains("idx_scenes_assets_path_ops"), plan);
+        assertFalse(readsAssets(plan), plan);
+    }
+
+    // EXPLAIN VERBOSE of the repository's own query text, with :named parameters bound positionally.
+    // Sequential and plain index scans are disabled, so the plan shows whether the filter can use the GIN indexes
+    // (bitmap scans) at all: left alone, the planner may legitimately prefer a sequential scan or a backward scan
+    // of the primary key for ORDER BY id DESC LIMIT.
+    private static String explain(String method, Map<String, Object> parameters) throws SQLException {
+        String sql = queryOf(method);
+
+        List<Object> values = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder positional = new StringBuilder();
+        while (matcher.find()) {
+            values.add(parameters.get(matcher.group(1)));
+            matcher.appendReplacement(positional, "?");
+        }
+        matcher.appendTail(positional);
+
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN (VERBOSE) " + positional)) {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET enable_seqscan = off");
+                settings.execute("SET enable_indexscan = off");
+            }
+            for (int i = 0; i < values.size(); i++) statement.setObject(i + 1, values.get(i));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String queryOf(String method) {
+        for (Method candidate : SceneRepository.class.getDeclaredMethods()) {
+            if (candidate.getName().equals(method)) return candidate.getAnnotation(Query.class).value();
+        }
+        throw new IllegalArgumentException("No query method " + method);
+    }
+
+    // Only the row output matters; the containment filter itself reads assets through the index recheck
+    private static boolean readsAssets(String plan) {
+        return plan.lines().filter(line -> line.trim().startsWith("Output:")).anyMatch(line -> line.contains("assets"));
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
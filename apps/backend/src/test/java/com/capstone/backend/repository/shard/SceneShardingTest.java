@@ -0,0 +1,313 @@
+package com.capstone.backend.repository.shard;
+
+import com.capstone.backend.config.ShardingProperties;
+import com.capstone.backend.dto.ScenePageResponse;
+import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.dto.ShardMoveResponse;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.SceneRepository.SceneSummary;
+import com.capstone.backend.service.SceneService;
+import com.capstone.backend.service.SceneShardRebalancer;
+import com.capstone.backend.service.SceneVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing, scatter-gather and user moves over two PostgreSQL shards (Testcontainers, needs Docker).
+ * The components are wired by hand the way ShardingConfig wires them; a second router stands in for another
+ * backend instance, sharing only the databases.
+ */
+@Testcontainers
+class SceneShardingTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_0 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> SHARD_1 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String SEARCH = "SELECT id, name, user_id, owner_username, current_version FROM scenes " +
+            "WHERE name ILIKE ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    private static ShardRoutingDataSource routing;
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+    private static ShardLocks shardLocks;
+
+    private SceneShardRouter router;
+    private SceneShardRebalancer rebalancer;
+    private SceneService sceneService;
+
+    @BeforeAll
+    static void migrateShards() {
+        DataSource shard0 = dataSource(SHARD_0);
+        DataSource shard1 = dataSource(SHARD_1);
+        migrate(shard0, 0);
+        migrate(shard1, 1);
+
+        routing = new ShardRoutingDataSource(List.of(shard0, shard1));
+        routing.afterPropertiesSet();
+        DataSource application = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(application);
+        transactionManager = new DataSourceTransactionManager(application);
+        shardLocks = new ShardLocks(routing);
+
+        new ShardSchemaInitializer(routing, new StaticListableBeanFactory().getBeanProvider(FlywayProperties.class), shardLocks)
+                .afterSingletonsInstantiated();
+    }
+
+    @BeforeEach
+    void emptyShards() {
+        shard(0).execute("TRUNCATE scenes, scene_shard_overrides CASCADE");
+        shard(0).execute("DELETE FROM users");
+        shard(1).execute("TRUNCATE scenes CASCADE");
+
+        router = newRouter();
+        rebalancer = new SceneShardRebalancer(router, shardLocks, jdbcTemplate);
+
+        SceneRepository sceneRepository = mock(SceneRepository.class);
+        when(sceneRepository.searchByText(anyString(), anyLong(), anyInt())).thenAnswer(invocation -> jdbcTemplate.query(
+                SEARCH, SUMMARY, invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        sceneService = new SceneService(sceneRepository, router, mock(SceneVersionService.class), new ObjectMapper());
+    }
+
+    @Test
+    void scenesGetIdsOfTheirOwnersShard() {
+        Long alice = createUser("alice", 0);
+        Long bob = createUser("bob", 1);
+
+        for (int i = 0; i < 3; i++) {
+            long aliceScene = createScene("alice", "Alice " + i);
+            long bobScene = createScene("bob", "Bob " + i);
+
+            assertEquals(0, Math.floorMod(aliceScene, 2L));
+            assertEquals(1, Math.floorMod(bobScene, 2L));
+            assertEquals(new SceneShardRouter.SceneLocation(0, alice, "alice"), router.locate(aliceScene).orElseThrow());
+            assertEquals(new SceneShardRouter.SceneLocation(1, bob, "bob"), router.locate(bobScene).orElseThrow());
+            assertEquals(1, rows(1, "SELECT COUNT(*) FROM scenes WHERE id = " + bobScene));
+        }
+        assertTrue(router.locate(Long.MAX_VALUE - 1).isEmpty());
+    }
+
+    @Test
+    void searchMergesShardsInKeysetOrder() {
+        createUser("alice", 0);
+        createUser("bob", 1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(createScene("alice", "Lamp " + i));
+            ids.add(createScene("bob", "Lamp " + i));
+        }
+        ids.sort((a, b) -> Long.compare(b, a));
+
+        ScenePageResponse first = sceneService.searchScenes("lamp", null, 4);
+        assertEquals(ids.subList(0, 4), sceneIds(first));
+        assertEquals(ids.get(3), first.getNextCursor());
+
+        ScenePageResponse second = sceneService.searchScenes("lamp", first.getNextCursor(), 4);
+        assertEquals(ids.subList(4, 6), sceneIds(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void moveCopiesScenesAndSwitchesOver() {
+        Long alice = createUser("alice", 0);
+        long first = createScene("alice", "Kitchen");
+        long second = createScene("alice", "Hall");
+        shard(0).update("INSERT INTO scene_versions (scene_id, version, kind, name, payload, created_at) " +
+                "VALUES (?, 1, 'SNAPSHOT', 'Kitchen', '[]', now())", first);
+
+        SceneShardRouter otherInstance = newRouter();
+        assertEquals(0, otherInstance.locate(first).orElseThrow().shard());
+
+        ShardMoveResponse response = rebalancer.moveUser("alice", 1);
+
+        assertEquals(2, response.getMovedScenes());
+        assertEquals(0, rows(0, "SELECT COUNT(*) FROM scenes"));
+        assertEquals(2, rows(1, "SELECT COUNT(*) FROM scenes WHERE user_id = " + alice));
+        assertEquals(1, rows(1, "SELECT COUNT(*) FROM scene_versions WHERE scene_id = " + first));
+        assertEquals(Map.of("shard", 1), shard(0).queryForMap("SELECT shard FROM users WHERE id = ? AND stale_shard IS NULL", alice));
+
+        // Ids keep pointing at shard 0, the overrides send them to the owner's shard - on every instance
+        assertEquals(2, rows(0, "SELECT COUNT(*) FROM scene_shard_overrides WHERE user_id = " + alice));
+        assertEquals(1, otherInstance.locate(first).orElseThrow().shard());
+        assertEquals(1, otherInstance.locate(second).orElseThrow().shard());
+        assertEquals(1, (int) otherInstance.inSceneShard(first, true, ShardContext::current));
+
+        // New scenes are created on the new shard
+        assertEquals(1, Math.floorMod(createScene("alice", "Attic"), 2L));
+
+        // Moving back: the scenes are on their ids' shard again
+        rebalancer.moveUser("alice", 0);
+        assertEquals(0, rows(0, "SELECT COUNT(*) FROM scene_shard_overrides WHERE scene_id IN (" + first + ", " + second + ")"));
+        assertEquals(0, router.locate(first).orElseThrow().shard());
+    }
+
+    @Test
+    void requestsWaitForTheSwitchOverAndFollowIt() throws Exception {
+        Long alice = createUser("alice", 0);
+        long scene = createScene("alice", "Kitchen");
+        SceneShardRouter otherInstance = newRouter();
+        ExecutorService requests = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Integer> request = shardLocks.whileScenesLocked(alice, 0, () -> {
+                Future<Integer> started = requests.submit(() -> otherInstance.inSceneShard(scene, true, ShardContext::current));
+                sleep();
+                assertFalse(started.isDone());
+
+                // What the switch-over does: the scene is on the target, then users.shard is flipped
+                shard(1).update("INSERT INTO scenes (id, name, assets, user_id, owner_username, current_version, " +
+                        "created_at, updated_at) VALUES (?, 'Kitchen', '[]', ?, 'alice', 0, now(), now())", scene, alice);
+                router.switchMove(alice, 0, 1, List.of(scene));
+                return started;
+            });
+
+            assertEquals(1, request.get(10, TimeUnit.SECONDS));
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void copiesLeftByAnInterruptedMoveAreIgnoredAndRemoved() {
+        Long alice = createUser("alice", 0);
+        long scene = createScene("alice", "Lamp");
+
+        // An instance died after copying: users.stale_shard marks the copy on shard 1
+        shard(1).update("INSERT INTO scenes (id, name, assets, user_id, owner_username, current_version, " +
+                "created_at, updated_at) VALUES (?, 'Lamp', '[]', ?, 'alice', 0, now(), now())", scene, alice);
+        shard(0).update("UPDATE users SET stale_shard = 1 WHERE id = ?", alice);
+
+        assertEquals(List.of(scene), sceneIds(sceneService.searchScenes("lamp", null, 10)));
+        assertEquals(0, router.locate(scene).orElseThrow().shard());
+
+        ShardMoveResponse response = rebalancer.moveUser("alice", 0);
+
+        assertEquals(0, response.getMovedScenes());
+        assertEquals(0, rows(1, "SELECT COUNT(*) FROM scenes"));
+        assertEquals(1, rows(0, "SELECT COUNT(*) FROM users WHERE stale_shard IS NULL"));
+    }
+
+    @Test
+    void failedMoveDiscardsThePartialCopy() {
+        Long alice = createUser("alice", 0);
+        createScene("alice", "Kitchen");
+        createScene("alice", "Broken");
+        shard(1).execute("ALTER TABLE scenes ADD CONSTRAINT test_reject_copy CHECK (name <> 'Broken')");
+
+        try {
+            assertThrows(RuntimeException.class, () -> rebalancer.moveUser("alice", 1));
+        } finally {
+            shard(1).execute("ALTER TABLE scenes DROP CONSTRAINT test_reject_copy");
+        }
+
+        assertEquals(0, rows(1, "SELECT COUNT(*) FROM scenes"));
+        assertEquals(2, rows(0, "SELECT COUNT(*) FROM scenes WHERE user_id = " + alice));
+        assertEquals(Map.of("shard", 0), shard(0).queryForMap("SELECT shard FROM users WHERE id = ? AND stale_shard IS NULL", alice));
+
+        // Nothing is left that would block the next move
+        assertEquals(2, rebalancer.moveUser("alice", 1).getMovedScenes());
+    }
+
+    private static final RowMapper<SceneSummary> SUMMARY = (rs, rowNum) -> {
+        Long id = rs.getLong("id");
+        String name = rs.getString("name");
+        Long userId = rs.getLong("user_id");
+        String ownerUsername = rs.getString("owner_username");
+        Integer currentVersion = rs.getInt("current_version");
+        return new SceneSummary() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public String getDescription() { return null; }
+            public String getThumbnailUrl() { return null; }
+            public Long getUserId() { return userId; }
+            public String getOwnerUsername() { return ownerUsername; }
+            public Integer getCurrentVersion() { return currentVersion; }
+            public LocalDateTime getCreatedAt() { return null; }
+            public LocalDateTime getUpdatedAt() { return null; }
+        };
+    };
+
+    private SceneShardRouter newRouter() {
+        return new SceneShardRouter(routing, jdbcTemplate, transactionManager, new ShardingProperties());
+    }
+
+    private static Long createUser(String username, int shard) {
+        return shard(0).queryForObject("INSERT INTO users (username, password, email, nickname, shard, created_at, updated_at) " +
+                "VALUES (?, 'secret', ?, ?, ?, now(), now()) RETURNING id", Long.class, username, username + "@example.com", username, shard);
+    }
+
+    private long createScene(String username, String name) {
+        return router.inOwnerShard(username, false, user -> jdbcTemplate.queryForObject(
+                "INSERT INTO scenes (name, assets, user_id, owner_username, current_version, created_at, updated_at) " +
+                        "VALUES (?, '[]', ?, ?, 0, now(), now()) RETURNING id", Long.class, name, user.id(), user.username()));
+    }
+
+    private static List<Long> sceneIds(ScenePageResponse page) {
+        return page.getScenes().stream().map(SceneResponse::getId).collect(Collectors.toList());
+    }
+
+    private static long rows(int shard, String countQuery) {
+        return shard(shard).queryForObject(countQuery, Long.class);
+    }
+
+    private static JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(routing.shard(shard));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DataSource dataSource(PostgreSQLContainer<?> postgres) {
+        return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static void migrate(DataSource dataSource, int shard) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .placeholders(Map.of("shard", String.valueOf(shard)))
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,76 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.SignupRequest;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserAvailabilityService userAvailabilityService = mock(UserAvailabilityService.class);
+    private final AuthService authService = new AuthService(userRepository, mock(PasswordEncoder.class),
+            mock(SceneShardRouter.class), userAvailabilityService);
+
+    @Test
+    void duplicateUsernameIsReported() {
+        assertSignupFails(violation("23505", "uk_users_username"), "Username already exists");
+    }
+
+    @Test
+    void duplicateEmailIsReported() {
+        assertSignupFails(violation("23505", "uk_users_email"), "Email already exists");
+    }
+
+    @Test
+    void uniqueViolationOfAnotherConstraintIsReportedAsDuplicateUser() {
+        assertSignupFails(violation("23505", "users_nickname_key"), "User already exists");
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        // not_null_violation
+        DataIntegrityViolationException violation = violation("23502", null);
+        when(userRepository.saveAndFlush(any())).thenThrow(violation);
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> authService.signup(request()));
+
+        assertSame(violation, thrown);
+        verify(userAvailabilityService, never()).registered(anyString(), anyString());
+    }
+
+    private void assertSignupFails(DataIntegrityViolationException violation, String message) {
+        when(userRepository.saveAndFlush(any())).thenThrow(violation);
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> authService.signup(request()));
+
+        assertEquals(message, thrown.getMessage());
+        verify(userAvailabilityService, never()).registered(anyString(), anyString());
+    }
+
+    // What Hibernate and Spring's exception translation make of a PostgreSQL constraint error
+    private static DataIntegrityViolationException violation(String sqlState, String constraint) {
+        SQLException sqlException = new SQLException("ERROR: constraint violated", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraint));
+    }
+
+    private static SignupRequest request() {
+        return new SignupRequest("testuser", "password123", "test@example.com", "테스트유저");
+    }
+}
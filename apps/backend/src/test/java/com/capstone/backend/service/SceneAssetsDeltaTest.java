@@ -0,0 +1,107 @@
+package com.capstone.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SceneAssetsDeltaTest {
+
+    private static final String BASE = "[" +
+            "{\"id\":\"a\",\"type\":\"object\",\"meshName\":\"Chair\",\"transform\":{\"position\":[0,0,0]}}," +
+            "{\"id\":\"b\",\"type\":\"object\",\"meshName\":\"Table\",\"transform\":{\"position\":[1,0,0]}}," +
+            "{\"id\":\"c\",\"type\":\"point-light\",\"lightParams\":{\"intensity\":2}}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SceneAssetsDelta delta = new SceneAssetsDelta(objectMapper);
+
+    @Test
+    void unchangedAssetsGiveEmptyDelta() throws Exception {
+        String payload = delta.diff(BASE, BASE).orElseThrow();
+
+        assertEquals(0, objectMapper.readTree(payload).size());
+        assertSameAssets(BASE, delta.apply(BASE, payload));
+    }
+
+    @Test
+    void movedAssetIsTheOnlyPut() throws Exception {
+        String current = BASE.replace("\"position\":[1,0,0]", "\"position\":[5,0,2]");
+
+        JsonNode payload = objectMapper.readTree(delta.diff(BASE, current).orElseThrow());
+
+        assertEquals(1, payload.get("put").size());
+        assertEquals("b", payload.get("put").get(0).get("id").asText());
+        assertFalse(payload.has("remove"));
+        assertFalse(payload.has("order"));
+        assertSameAssets(current, delta.apply(BASE, payload.toString()));
+    }
+
+    @Test
+    void removeAndAppendReplayWithoutOrder() throws Exception {
+        String current = "[" +
+                "{\"id\":\"a\",\"type\":\"object\",\"meshName\":\"Chair\",\"transform\":{\"position\":[0,0,0]}}," +
+                "{\"id\":\"c\",\"type\":\"point-light\",\"lightParams\":{\"intensity\":2}}," +
+                "{\"id\":\"d\",\"type\":\"object\",\"meshName\":\"Lamp\",\"transform\":{\"position\":[3,0,0]}}]";
+
+        JsonNode payload = objectMapper.readTree(delta.diff(BASE, current).orElseThrow());
+
+        assertEquals("b", payload.get("remove").get(0).asText());
+        assertEquals("d", payload.get("put").get(0).get("id").asText());
+        // Survivors in place + appended asset is exactly the saved order
+        assertFalse(payload.has("order"));
+        assertSameAssets(current, delta.apply(BASE, payload.toString()));
+    }
+
+    @Test
+    void reorderStoresOrder() throws Exception {
+        String current = "[" +
+                "{\"id\":\"c\",\"type\":\"point-light\",\"lightParams\":{\"intensity\":2}}," +
+                "{\"id\":\"a\",\"type\":\"object\",\"meshName\":\"Chair\",\"transform\":{\"position\":[0,0,0]}}," +
+                "{\"id\":\"b\",\"type\":\"object\",\"meshName\":\"Table\",\"transform\":{\"position\":[1,0,0]}}]";
+
+        JsonNode payload = objectMapper.readTree(delta.diff(BASE, current).orElseThrow());
+
+        assertTrue(payload.has("order"));
+        assertFalse(payload.has("put"));
+        assertSameAssets(current, delta.apply(BASE, payload.toString()));
+    }
+
+    @Test
+    void chainedDeltasRebuildEveryVersion() {
+        String v1 = BASE;
+        String v2 = BASE.replace("\"intensity\":2", "\"intensity\":7");
+        String v3 = v2.replace(",{\"id\":\"b\",\"type\":\"object\",\"meshName\":\"Table\",\"transform\":{\"position\":[1,0,0]}}", "");
+
+        String d2 = delta.diff(v1, v2).orElseThrow();
+        String d3 = delta.diff(v2, v3).orElseThrow();
+
+        String replayed = delta.apply(delta.apply(v1, d2), d3);
+        assertSameAssets(v3, replayed);
+    }
+
+    @Test
+    void documentsWithoutUniqueIdsHaveNoDelta() {
+        String duplicateIds = "[{\"id\":\"a\"},{\"id\":\"a\"}]";
+        String missingId = "[{\"type\":\"object\"}]";
+
+        assertEquals(Optional.empty(), delta.diff(BASE, duplicateIds));
+        assertEquals(Optional.empty(), delta.diff(missingId, BASE));
+        assertEquals(Optional.empty(), delta.diff("{\"not\":\"an array\"}", BASE));
+        assertThrows(IllegalStateException.class, () -> delta.apply(missingId, "{}"));
+        assertThrows(IllegalStateException.class, () -> delta.apply(BASE, "not json"));
+    }
+
+    private void assertSameAssets(String expected, String actual) {
+        try {
+            assertEquals(objectMapper.readTree(expected), objectMapper.readTree(actual));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.SceneAutosaveResponse;
+import com.capstone.backend.dto.SceneAutosaveResponse.Durability;
+import com.capstone.backend.dto.SceneRequest;
+import com.capstone.backend.dto.SceneResponse;
+import com.capstone.backend.repository.SceneRepository;
+import com.capstone.backend.repository.shard.SceneShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SceneAutosaveServiceTest {
+
+    private static final Long SCENE_ID = 1L;
+
+    private final SceneService sceneService = mock(SceneService.class);
+    private final SceneShardRouter sceneShardRouter = mock(SceneShardRouter.class);
+    private final SceneAutosaveService autosaveService =
+            new SceneAutosaveService(sceneService, mock(SceneRepository.class), sceneShardRouter);
+
+    @BeforeEach
+    void ownedScene() {
+        when(sceneShardRouter.locate(SCENE_ID))
+                .thenReturn(Optional.of(new SceneShardRouter.SceneLocation(0, 10L, "owner")));
+        ReflectionTestUtils.setField(autosaveService, "maxBufferedBytes", 1024L);
+    }
+
+    @Test
+    void autosaveOverTheByteBudgetIsWrittenThrough() {
+        when(sceneService.updateScene(eq(SCENE_ID), any()))
+                .thenReturn(SceneResponse.builder().id(SCENE_ID).version(2).build());
+
+        SceneAutosaveResponse response =
+                autosaveService.autosave(SCENE_ID, request("[\"" + "x".repeat(2048) + "\"]"), Durability.BUFFERED);
+
+        assertEquals(Durability.COMMITTED, response.getDurability());
+        assertEquals(2, (int) response.getVersion());
+        assertFalse(autosaveService.hasPending(SCENE_ID));
+        assertEquals(0L, autosaveService.bufferedBytes());
+    }
+
+    @Test
+    void bufferedBytesFollowReplacedAndFlushedSaves() {
+        when(sceneService.updateScene(eq(SCENE_ID), any()))
+                .thenReturn(SceneResponse.builder().id(SCENE_ID).version(2).build());
+
+        autosaveService.autosave(SCENE_ID, request("[\"a\"]"), Durability.BUFFERED);
+        autosaveService.autosave(SCENE_ID, request("[\"abc\"]"), Durability.BUFFERED);
+        // "Autosaved" + "[\"abc\"]" + "owner"
+        assertEquals(9L + 7L + 5L, autosaveService.bufferedBytes());
+
+        autosaveService.flush(SCENE_ID);
+
+        assertEquals(0L, autosaveService.bufferedBytes());
+        verify(sceneService, times(1)).updateScene(eq(SCENE_ID), any());
+    }
+
+    @Test
+    void explicitWriteSupersedesTheAutosavePendingWhenItStarted() {
+        autosaveService.autosave(SCENE_ID, request("[\"a\"]"), Durability.BUFFERED);
+
+        autosaveService.supersedePending(SCENE_ID, () -> "written");
+
+        assertFalse(autosaveService.hasPending(SCENE_ID));
+    }
+
+    @Test
+    void autosaveArrivingDuringExplicitWriteIsKept() throws Exception {
+        autosaveService.autosave(SCENE_ID, request("[\"old\"]"), Durability.BUFFERED);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> explicitWrite = executor.submit(() -> autosaveService.supersedePending(SCENE_ID, () -> {
+                writing.countDown();
+                await(release);
+                return "written";
+            }));
+
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            autosaveService.autosave(SCENE_ID, request("[\"newer\"]"), Durability.BUFFERED);
+            release.countDown();
+            assertEquals("written", explicitWrite.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("[\"newer\"]", pendingAssets());
+    }
+
+    @Test
+    void failedExplicitWriteKeepsPendingAutosave() {
+        autosaveService.autosave(SCENE_ID, request("[\"a\"]"), Durability.BUFFERED);
+
+        assertThrows(RuntimeException.class, () -> autosaveService.supersedePending(SCENE_ID, () -> {
+            throw new RuntimeException("You don't have permission to update this scene");
+        }));
+
+        assertEquals("[\"a\"]", pendingAssets());
+    }
+
+    @Test
+    void autosaveArrivingDuringFlushIsFlushedNextTime() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(sceneService.updateScene(eq(SCENE_ID), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            await(release);
+            return SceneResponse.builder().id(SCENE_ID).version(2).build();
+        });
+
+        autosaveService.autosave(SCENE_ID, request("[\"first\"]"), Durability.BUFFERED);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> flush = executor.submit(() -> autosaveService.flush(SCENE_ID));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            autosaveService.autosave(SCENE_ID, request("[\"second\"]"), Durability.BUFFERED);
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("[\"second\"]", pendingAssets());
+    }
+
+    @Test
+    void readsServePendingStateWithoutWriting() {
+        autosaveService.autosave(SCENE_ID, request("[\"pending\"]"), Durability.BUFFERED);
+        SceneResponse committed = SceneResponse.builder()
+                .id(SCENE_ID).name("Committed").assets("[]").version(3).build();
+
+        assertTrue(autosaveService.withPending(committed));
+
+        assertEquals("Autosaved", committed.getName());
+        assertEquals("[\"pending\"]", committed.getAssets());
+        assertEquals(3, (int) committed.getVersion());
+        verify(sceneService, never()).updateScene(any(), any());
+    }
+
+    private String pendingAssets() {
+        SceneResponse scene = SceneResponse.builder().id(SCENE_ID).build();
+        assertTrue(autosaveService.withPending(scene));
+        return scene.getAssets();
+    }
+
+    private static SceneRequest request(String assets) {
+        return new SceneRequest("Autosaved", null, null, assets, "owner");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.service.UserAvailabilityService.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAvailabilityServiceTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void filterHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) filter.add(username(i));
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain(username(i)), username(i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRateAtExpectedSize() {
+        assertFalsePositiveRateBelow(0.01, 0.0125);
+        assertFalsePositiveRateBelow(0.001, 0.0015);
+    }
+
+    @Test
+    void sizingFollowsTheOptimalFormula() {
+        // m = -n ln p / (ln 2)^2 = 958,506 bits for n = 100,000, p = 0.01, rounded up to whole words
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+        assertEquals(958_528L, filter.bitCount());
+    }
+
+    // Names and emails look alike, so probes share prefixes with the inserted values
+    private static void assertFalsePositiveRateBelow(double configured, double bound) {
+        BloomFilter filter = new BloomFilter(INSERTIONS, configured);
+        for (int i = 0; i < INSERTIONS; i++) filter.add(username(i));
+
+        int falsePositives = 0;
+        for (int i = INSERTIONS; i < INSERTIONS + PROBES; i++) {
+            if (filter.mightContain(username(i))) falsePositives++;
+        }
+        double rate = (double) falsePositives / PROBES;
+        assertTrue(rate < bound, "false positive rate " + rate + " for configured " + configured);
+    }
+
+    private static String username(int i) {
+        return "user" + i + "@example.com";
+    }
+}